@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dfki.lt.loot.fsa.CharFsa;
+import de.dfki.lt.loot.fsa.LexiconBuilder;
+import de.dfki.lt.loot.fsa.algo.Minimization;
+import de.dfki.lt.loot.fsa.algo.MinimizationValmari;
+
+/** Construction and minimization of lexicon automata of varying size. The
+ *  minimizers get a fresh trie automaton of the words for every invocation,
+ *  since they work destructively.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutomatonBenchmark {
+
+  @Param({ "1000", "10000", "100000" })
+  public int words;
+
+  private List<String> lexicon;
+
+  /** A fresh trie automaton for every invocation */
+  @State(Scope.Thread)
+  public static class Trie {
+    CharFsa fsa;
+
+    @Setup(Level.Invocation)
+    public void setup(AutomatonBenchmark benchmark) {
+      fsa = Workloads.trieAutomaton(benchmark.lexicon);
+    }
+  }
+
+  @Setup
+  public void setup() {
+    lexicon = Workloads.randomWords(words, 42);
+  }
+
+  @Benchmark
+  public CharFsa lexiconBuilder() {
+    return LexiconBuilder.build(lexicon);
+  }
+
+  @Benchmark
+  public CharFsa minimizeHopcroft(Trie trie) {
+    Minimization.minimize(trie.fsa, trie.fsa.getComparator());
+    return trie.fsa;
+  }
+
+  @Benchmark
+  public CharFsa minimizeValmari(Trie trie) {
+    MinimizationValmari.minimize(trie.fsa, trie.fsa.getComparator());
+    return trie.fsa;
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dfki.lt.loot.digraph.DiGraph;
+import de.dfki.lt.loot.digraph.Graph;
+import de.dfki.lt.loot.digraph.GraphVisitorAdapter;
+import de.dfki.lt.loot.digraph.algo.DijkstraShortestPath;
+import de.dfki.lt.loot.digraph.weighted.IntMonoid;
+
+/** Breadth-first search and shortest paths on random directed graphs of
+ *  varying density. The recursive algorithms are in
+ *  {@link RecursiveGraphBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+
+  @Param({ "1000", "100000" })
+  public int vertices;
+
+  /** The number of out edges per vertex */
+  @Param({ "2", "8", "32" })
+  public int density;
+
+  private DiGraph<Integer> graph;
+
+  /** Counts the discovered vertices */
+  static class CountingVisitor extends GraphVisitorAdapter<Integer> {
+    long count = 0;
+
+    @Override
+    public void discoverVertex(int v, Graph<Integer> g) {
+      ++count;
+    }
+  }
+
+  @Setup
+  public void setup() {
+    graph = Workloads.randomGraph(vertices, density, 100, 42);
+  }
+
+  @Benchmark
+  public long bfs() {
+    CountingVisitor visitor = new CountingVisitor();
+    graph.bfs(visitor);
+    return visitor.count;
+  }
+
+  @Benchmark
+  public Object dijkstra() {
+    DijkstraShortestPath<Integer, Integer> dijkstra =
+        new DijkstraShortestPath<Integer, Integer>();
+    dijkstra.shortestPath(graph, 0, new IntMonoid(), (edge) -> edge.getInfo());
+    return dijkstra.getDistance();
+  }
+
+  @Benchmark
+  public Object dijkstraIntWeights() {
+    DijkstraShortestPath<Integer, Integer> dijkstra =
+        DijkstraShortestPath.forIntWeights(100);
+    dijkstra.shortestPath(graph, 0, new IntMonoid(), (edge) -> edge.getInfo());
+    return dijkstra.getDistance();
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dfki.lt.loot.jada.IntComparator;
+import de.dfki.lt.loot.jada.IntPriorityQueue;
+import de.dfki.lt.loot.jada.RadixIntHeap;
+
+/** Priority queues under a decrease-key heavy sequence, like in Dijkstra's
+ *  algorithm on a dense graph: all elements are inserted, then every
+ *  extraction of the minimum is preceded by a number of decreaseKey calls.
+ *  The keys are monotone, so the radix heap can take part.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeapBenchmark {
+
+  @Param({ "FIBONACCI", "BINARY", "QUATERNARY", "PAIRING", "RADIX" })
+  public String queue;
+
+  @Param({ "10000", "1000000" })
+  public int size;
+
+  /** The number of decreaseKey calls per extraction */
+  @Param({ "1", "8" })
+  public int decreases;
+
+  private int[] initialKeys;
+
+  /** The elements to decrease, in order */
+  private int[] decreaseOps;
+
+  private int[] keys;
+
+  @Setup
+  public void setup() {
+    Random r = new Random(42);
+    initialKeys = new int[size];
+    for (int i = 0; i < size; ++i) {
+      initialKeys[i] = r.nextInt(Integer.MAX_VALUE);
+    }
+    decreaseOps = new int[size * decreases];
+    for (int i = 0; i < decreaseOps.length; ++i) {
+      decreaseOps[i] = r.nextInt(size);
+    }
+    keys = new int[size];
+  }
+
+  private IntPriorityQueue newQueue() {
+    if (queue.equals("RADIX")) {
+      return new RadixIntHeap(size, (e) -> keys[e]);
+    }
+    IntComparator order = new IntComparator() {
+      @Override
+      public int compare(int a, int b) {
+        return Integer.compare(keys[a], keys[b]);
+      }
+    };
+    IntPriorityQueue.Factory factory;
+    switch (queue) {
+    case "FIBONACCI": factory = IntPriorityQueue.FIBONACCI; break;
+    case "BINARY": factory = IntPriorityQueue.BINARY; break;
+    case "QUATERNARY": factory = IntPriorityQueue.QUATERNARY; break;
+    case "PAIRING": factory = IntPriorityQueue.PAIRING; break;
+    default: throw new IllegalArgumentException("unknown queue " + queue);
+    }
+    return factory.create(size, order);
+  }
+
+  @Benchmark
+  public long decreaseKeyHeavy() {
+    System.arraycopy(initialKeys, 0, keys, 0, size);
+    IntPriorityQueue q = newQueue();
+    for (int e = 0; e < size; ++e) {
+      q.insert(e);
+    }
+    long sum = 0;
+    int last = 0;
+    int op = 0;
+    while (! q.isEmpty()) {
+      for (int i = 0; i < decreases && op < decreaseOps.length; ++i, ++op) {
+        int e = decreaseOps[op];
+        if (q.contains(e) && keys[e] > last) {
+          keys[e] = last + (keys[e] - last) / 2;
+          q.decreaseKey(e);
+        }
+      }
+      int min = q.extractMin();
+      last = keys[min];
+      sum += min;
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dfki.lt.loot.jada.Partition;
+
+/** Random unions on a {@link Partition}, followed by finding the
+ *  representative of every element.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartitionBenchmark {
+
+  @Param({ "10000", "1000000" })
+  public int size;
+
+  /** The number of unions, relative to the size */
+  @Param({ "0.5", "2.0" })
+  public double unionRatio;
+
+  private int[] from, to;
+
+  @Setup
+  public void setup() {
+    Random r = new Random(42);
+    int unions = (int) (size * unionRatio);
+    from = new int[unions];
+    to = new int[unions];
+    for (int i = 0; i < unions; ++i) {
+      from[i] = r.nextInt(size);
+      to[i] = r.nextInt(size);
+    }
+  }
+
+  @Benchmark
+  public long unionFind() {
+    Partition p = new Partition(size);
+    for (int i = 0; i < from.length; ++i) {
+      p.union(from[i], to[i]);
+    }
+    long sum = 0;
+    for (int i = 0; i < size; ++i) {
+      sum += p.findRepresentative(i);
+    }
+    return sum;
+  }
+}
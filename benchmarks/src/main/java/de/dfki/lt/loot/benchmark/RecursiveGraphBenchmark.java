@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package de.dfki.lt.loot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dfki.lt.loot.benchmark.GraphBenchmark.CountingVisitor;
+import de.dfki.lt.loot.digraph.DiGraph;
+import de.dfki.lt.loot.digraph.algo.SccReduction;
+
+/** Depth-first search and SCC reduction on random directed graphs of varying
+ *  density. Both recurse once per vertex on the DFS path, which is almost as
+ *  long as the graph is large, so the graphs are smaller than in
+ *  {@link GraphBenchmark} and the forked JVM gets a large thread stack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+public class RecursiveGraphBenchmark {
+
+  @Param({ "1000", "10000" })
+  public int vertices;
+
+  /** The number of out edges per vertex */
+  @Param({ "2", "8", "32" })
+  public int density;
+
+  private DiGraph<Integer> graph;
+
+  @Setup
+  public void setup() {
+    graph = Workloads.randomGraph(vertices, density, 100, 42);
+  }
+
+  @Benchmark
+  public long dfs() {
+    CountingVisitor visitor = new CountingVisitor();
+    graph.dfs(visitor);
+    return visitor.count;
+  }
+
+  @Benchmark
+  public DiGraph<Integer> sccReduction() {
+    return SccReduction.acyclicSccReduction(graph);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.dfki.lt.loot.jada.CompactIntTrie;
+import de.dfki.lt.loot.jada.IntIntTrie;
+import de.dfki.lt.loot.jada.IntTrie;
+
+/** Building tries from random int sequences, and looking up sequences of
+ *  which about half are in the trie.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrieBenchmark {
+
+  @Param({ "1000", "100000" })
+  public int size;
+
+  @Param({ "8", "256" })
+  public int alphabet;
+
+  private int[][] sequences;
+
+  private int[][] queries;
+
+  private IntTrie<Integer> intTrie;
+
+  private IntIntTrie intIntTrie;
+
+  private CompactIntTrie<Integer> compactTrie;
+
+  @Setup
+  public void setup() {
+    sequences = Workloads.randomSequences(size, 8, alphabet, 42);
+    int[][] other = Workloads.randomSequences(size, 8, alphabet, 43);
+    queries = new int[size][];
+    for (int i = 0; i < size; ++i) {
+      queries[i] = (i % 2 == 0) ? sequences[i] : other[i];
+    }
+    intTrie = buildIntTrie();
+    intTrie.optimize();
+    intIntTrie = buildIntIntTrie();
+    intIntTrie.optimize();
+    compactTrie = CompactIntTrie.fromTrie(intIntTrie);
+  }
+
+  @Benchmark
+  public IntTrie<Integer> buildIntTrie() {
+    IntTrie<Integer> trie = new IntTrie<Integer>();
+    for (int i = 0; i < sequences.length; ++i) {
+      trie.addSequence(sequences[i], i);
+    }
+    return trie;
+  }
+
+  @Benchmark
+  public IntIntTrie buildIntIntTrie() {
+    IntIntTrie trie = new IntIntTrie();
+    for (int[] seq : sequences) {
+      trie.addSequence(seq);
+    }
+    return trie;
+  }
+
+  @Benchmark
+  public long findIntTrie() {
+    long sum = 0;
+    for (int[] query : queries) {
+      Integer value = intTrie.getValue(query);
+      if (value != null) sum += value;
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long findIntIntTrie() {
+    long sum = 0;
+    for (int[] query : queries) {
+      IntIntTrie node = intIntTrie.find(query);
+      if (node != null) sum += node.getFinalId();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long findCompactIntTrie() {
+    long sum = 0;
+    for (int[] query : queries) {
+      int id = compactTrie.getId(query);
+      if (id >= 0) sum += id;
+    }
+    return sum;
+  }
+}
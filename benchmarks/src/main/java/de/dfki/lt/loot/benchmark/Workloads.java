@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import de.dfki.lt.loot.digraph.DiGraph;
+import de.dfki.lt.loot.fsa.CharFsa;
+
+/** Reproducible synthetic inputs for the benchmarks. All generators take a
+ *  seed, so every run of a benchmark sees the same data.
+ */
+final class Workloads {
+
+  private Workloads() {}
+
+  /** A random directed graph with the given number of vertices and about
+   *  density out edges per vertex, with integer weights in [1, maxWeight]
+   */
+  static DiGraph<Integer> randomGraph(int vertices, int density,
+      int maxWeight, long seed) {
+    Random r = new Random(seed);
+    DiGraph<Integer> graph = new DiGraph<Integer>(vertices);
+    for (int v = 0; v < vertices; ++v) {
+      for (int i = 0; i < density; ++i) {
+        graph.newEdge(1 + r.nextInt(maxWeight), v, r.nextInt(vertices));
+      }
+    }
+    return graph;
+  }
+
+  /** n distinct random words over a..z of length 3 to 12, sorted */
+  static List<String> randomWords(int n, long seed) {
+    Random r = new Random(seed);
+    TreeSet<String> words = new TreeSet<String>();
+    StringBuilder sb = new StringBuilder();
+    while (words.size() < n) {
+      sb.setLength(0);
+      int length = 3 + r.nextInt(10);
+      for (int i = 0; i < length; ++i) {
+        sb.append((char) ('a' + r.nextInt(26)));
+      }
+      words.add(sb.toString());
+    }
+    return new ArrayList<String>(words);
+  }
+
+  /** The (non-minimal) trie automaton of words */
+  static CharFsa trieAutomaton(List<String> words) {
+    CharFsa fsa = new CharFsa();
+    int root = fsa.newVertex();
+    fsa.setInitialState(root);
+    // the words are sorted, so only the path of the last word can be shared
+    int[] path = new int[1];
+    path[0] = root;
+    String last = "";
+    for (String word : words) {
+      int common = 0;
+      while (common < last.length() && common < word.length()
+          && last.charAt(common) == word.charAt(common)) {
+        ++common;
+      }
+      if (word.length() >= path.length) {
+        path = Arrays.copyOf(path, word.length() + 1);
+      }
+      for (int i = common; i < word.length(); ++i) {
+        int v = fsa.newVertex();
+        fsa.newEdge(word.charAt(i), path[i], v);
+        path[i + 1] = v;
+      }
+      fsa.setFinalState(path[word.length()]);
+      last = word;
+    }
+    return fsa;
+  }
+
+  /** n random int sequences of length 1 to maxLength over [0, alphabet[ */
+  static int[][] randomSequences(int n, int maxLength, int alphabet,
+      long seed) {
+    Random r = new Random(seed);
+    int[][] result = new int[n][];
+    for (int i = 0; i < n; ++i) {
+      result[i] = new int[1 + r.nextInt(maxLength)];
+      for (int j = 0; j < result[i].length; ++j) {
+        result[i][j] = r.nextInt(alphabet);
+      }
+    }
+    return result;
+  }
+}
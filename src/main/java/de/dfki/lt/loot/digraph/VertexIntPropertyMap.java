@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.digraph;
+
+import gnu.trove.list.array.TIntArrayList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/** A property map for int values that stores them unboxed. Vertices without
+ *  a value return the default value given in the constructor.
+ */
+public class VertexIntPropertyMap implements VertexPropertyMap<Integer> {
+
+  private Graph<?> _graph;
+
+  private TIntArrayList _map;
+
+  private int _default;
+
+  public VertexIntPropertyMap(Graph<?> graph, int defaultValue) {
+    _map = new TIntArrayList();
+    _graph = graph;
+    _default = defaultValue;
+  }
+
+  public void clear() {
+    _map.clear();
+  }
+
+  public void put(int vertex, Integer value) {
+    putInt(vertex, value);
+  }
+
+  public void putInt(int vertex, int value) {
+    assert (_graph.isVertex(vertex));
+    while (_map.size() <= vertex) {
+      _map.add(_default);
+    }
+    _map.set(vertex, value);
+  }
+
+  public Integer get(int vertex) {
+    return getInt(vertex);
+  }
+
+  public int getInt(int vertex) {
+    if (_map.size() <= vertex || vertex < 0) return _default;
+    return _map.get(vertex);
+  }
+
+  public void remove(int vertex) {
+    if (_map.size() > vertex) {
+      _map.set(vertex, _default);
+    }
+  }
+
+  public void removeRange(int from, int to) {
+    if (_map.size() > from) {
+      _map.remove(from, Math.min(to, _map.size()) - from);
+    }
+  }
+
+  public List<Integer>
+    findVertices(Integer val, BiPredicate<Integer, Integer> pred) {
+
+    List<Integer> result = new ArrayList<Integer>(_map.size());
+    for(int i = 0; i < _map.size(); ++i) {
+      if (_graph.isVertex(i) && pred.test(_map.get(i), val)) {
+        result.add(i);
+      }
+    }
+    return result;
+  }
+}
@@ -21,8 +21,8 @@ import java.util.function.Function;
 
 import de.dfki.lt.loot.digraph.*;
 import de.dfki.lt.loot.digraph.weighted.OrderedMonoid;
-import de.dfki.lt.loot.jada.FibonacciHeapBase;
-import de.dfki.lt.loot.jada.FibonacciHeapBase.HeapNode;
+import de.dfki.lt.loot.jada.IntComparator;
+import de.dfki.lt.loot.jada.IntPriorityQueue;
 
 public class AStarShortestPath <EdgeInfo, T> {
 
@@ -39,6 +39,19 @@ public class AStarShortestPath <EdgeInfo, T> {
   // shortest path in case there is one found
   private VertexPropertyMap<Edge<EdgeInfo>> predecessor;
 
+  // creates the priority queue for every search
+  private final IntPriorityQueue.Factory queueFactory;
+
+  /** A search using a Fibonacci heap as priority queue */
+  public AStarShortestPath() {
+    this(IntPriorityQueue.FIBONACCI);
+  }
+
+  /** A search using the priority queues created by queueFactory */
+  public AStarShortestPath(IntPriorityQueue.Factory queueFactory) {
+    this.queueFactory = queueFactory;
+  }
+
   /** @param h is the estimation function how expensive it will be to reach the
    *         target from the given vertex
    */
@@ -48,12 +61,10 @@ public class AStarShortestPath <EdgeInfo, T> {
     predecessor = new VertexListPropertyMap<Edge<EdgeInfo>>(g);
     realDistance = new VertexListPropertyMap<T>(g);
     estimatedDistance = new VertexListPropertyMap<T>(g);
-    VertexPropertyMap<HeapNode<Integer>> heapNodes =
-        new VertexListPropertyMap<HeapNode<Integer>>(g);
 
-    Comparator<Integer> compareVertices =
-      new Comparator<Integer>() {
-      public int compare(Integer vertex1, Integer vertex2) {
+    IntComparator compareVertices = new IntComparator() {
+      @Override
+      public int compare(int vertex1, int vertex2) {
         T dist1 = estimatedDistance.get(vertex1);
         T dist2 = estimatedDistance.get(vertex2);
         if (dist1 == null) {
@@ -64,8 +75,8 @@ public class AStarShortestPath <EdgeInfo, T> {
       }
     };
 
-    FibonacciHeapBase<Integer> q =
-      new FibonacciHeapBase<Integer>(compareVertices);
+    IntPriorityQueue q =
+        queueFactory.create(g.getNumberOfVertices(), compareVertices);
 
     // We have two distance maps, one for the "real", and the other for the
     // estimated cost and the heap must consider the estimated cost for
@@ -74,13 +85,10 @@ public class AStarShortestPath <EdgeInfo, T> {
     realDistance.put(startVertex, ops.getZero());
     // must be h(start) instead of zero
     estimatedDistance.put(startVertex, h.apply(startVertex));
-    heapNodes.put(startVertex, q.insert(startVertex));
+    q.insert(startVertex);
 
     while (! q.isEmpty()) {
-      HeapNode<Integer> minNode = q.minimum();
-      int vertex = q.getValue(minNode);
-      q.removeMinimum();
-      heapNodes.remove(vertex);
+      int vertex = q.extractMin();
       // stop prematurely if a final vertex is reached
       if (endVertices.get(vertex)) {
         return vertex;
@@ -99,11 +107,10 @@ public class AStarShortestPath <EdgeInfo, T> {
             || ops.compare(alt, realDistance.get(target)) < 0) {
           realDistance.put(target, alt);
           estimatedDistance.put(target, ops.add(alt, h.apply(target)));
-          HeapNode<Integer> targetHeapNode = heapNodes.get(target);
-          if (targetHeapNode == null) {
-            heapNodes.put(target, q.insert(target));
+          if (q.contains(target)) {
+            q.decreaseKey(target);
           } else {
-            q.decreaseKey(targetHeapNode);
+            q.insert(target);
           }
           predecessor.put(target, outEdge);
         }
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.digraph.algo;
+
+import de.dfki.lt.loot.digraph.Edge;
+import de.dfki.lt.loot.digraph.Graph;
+import de.dfki.lt.loot.jada.ConcurrentPartition;
+import de.dfki.lt.loot.jada.Partition;
+
+/** The connected components of an undirected graph, or the weakly connected
+ *  components of a directed graph, as dense labels per vertex.
+ *
+ *  The components are numbered from zero in the order of their smallest
+ *  vertex. Deleted vertices get the label -1 and belong to no component.
+ *  They are computed either sequentially with a {@link Partition}, or in
+ *  parallel with {@link ParallelComponents}. Both give the same result.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class ConnectedComponents {
+
+  /** The component of every vertex, -1 for deleted vertices */
+  private final int[] labels;
+
+  /** The number of vertices in every component */
+  private final int[] sizes;
+
+  /** Create the components from the compact labels of the partition of
+   *  the vertices, with -1 for deleted vertices
+   */
+  private ConnectedComponents(int[] compactLabels) {
+    labels = compactLabels;
+    int next = 0;
+    for (int label : labels) {
+      next = Math.max(next, label + 1);
+    }
+    sizes = new int[next];
+    for (int label : labels) {
+      if (label >= 0) ++sizes[label];
+    }
+  }
+
+  /** Compute the components of graph sequentially */
+  public static <EdgeInfo> ConnectedComponents compute(Graph<EdgeInfo> graph) {
+    final Partition partition = new Partition(graph.getNumberOfVertices());
+    for (int v = 0; v < graph.getNumberOfVertices(); ++v) {
+      if (! graph.isVertex(v)) continue;
+      for (Edge<EdgeInfo> edge : graph.getOutEdges(v)) {
+        partition.union(v, edge.getTargetForSource(v));
+      }
+    }
+    return new ConnectedComponents(partition.compactLabels(graph::isVertex));
+  }
+
+  /** Compute the components of graph with the given number of threads */
+  public static <EdgeInfo> ConnectedComponents computeParallel(
+      Graph<EdgeInfo> graph, int threads) {
+    ConcurrentPartition partition = ParallelComponents.connect(graph, threads);
+    return new ConnectedComponents(partition.compactLabels(graph::isVertex));
+  }
+
+  /** Compute the components of graph with as many threads as there are
+   *  processors
+   */
+  public static <EdgeInfo> ConnectedComponents computeParallel(
+      Graph<EdgeInfo> graph) {
+    return computeParallel(graph, Runtime.getRuntime().availableProcessors());
+  }
+
+  public int getNumberOfComponents() {
+    return sizes.length;
+  }
+
+  /** Return the component of vertex, or -1 if it is a deleted vertex */
+  public int getLabel(int vertex) {
+    return labels[vertex];
+  }
+
+  /** Return the components of all vertices. The array is shared and must not
+   *  be modified.
+   */
+  public int[] getLabels() {
+    return labels;
+  }
+
+  /** Return the number of vertices in component */
+  public int getSize(int component) {
+    return sizes[component];
+  }
+
+  /** Return the sizes of all components. The array is shared and must not
+   *  be modified.
+   */
+  public int[] getSizes() {
+    return sizes;
+  }
+
+  /** Return the vertices of every component in ascending order, e.g., to
+   *  distribute the components over several workers.
+   */
+  public int[][] getComponents() {
+    int[][] result = new int[sizes.length][];
+    int[] fill = new int[sizes.length];
+    for (int c = 0; c < sizes.length; ++c) {
+      result[c] = new int[sizes[c]];
+    }
+    for (int v = 0; v < labels.length; ++v) {
+      int c = labels[v];
+      if (c >= 0) result[c][fill[c]++] = v;
+    }
+    return result;
+  }
+}
@@ -18,7 +18,6 @@ package de.dfki.lt.loot.digraph.algo;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.function.Function;
@@ -27,9 +26,10 @@ import de.dfki.lt.loot.digraph.Edge;
 import de.dfki.lt.loot.digraph.VertexBooleanPropertyMap;
 import de.dfki.lt.loot.digraph.VertexListPropertyMap;
 import de.dfki.lt.loot.digraph.VertexPropertyMap;
+import de.dfki.lt.loot.digraph.weighted.IntMonoid;
 import de.dfki.lt.loot.digraph.weighted.OrderedMonoid;
-import de.dfki.lt.loot.jada.FibonacciHeapBase;
-import de.dfki.lt.loot.jada.FibonacciHeapBase.HeapNode;
+import de.dfki.lt.loot.jada.IntComparator;
+import de.dfki.lt.loot.jada.IntPriorityQueue;
 import de.dfki.lt.loot.digraph.Graph;
 
 public class DijkstraShortestPath<EdgeInfo, T> {
@@ -43,17 +43,59 @@ public class DijkstraShortestPath<EdgeInfo, T> {
   // shortest path in case there is one found
   private VertexPropertyMap<Edge<EdgeInfo>> predecessor;
 
-  private Integer shortestPath(Graph<EdgeInfo> g, int startVertex,
-      final OrderedMonoid<T> ops, final Function<Edge<EdgeInfo>, T> getWeight,
-      VertexBooleanPropertyMap endVertices) {
-    predecessor = new VertexListPropertyMap<Edge<EdgeInfo>>(g);
-    distance = new VertexListPropertyMap<T>(g);
-    VertexPropertyMap<HeapNode<Integer>> heapNodes =
-        new VertexListPropertyMap<HeapNode<Integer>>(g);
+  // creates the priority queue for every search, exactly one is not null
+  private final IntPriorityQueue.Factory queueFactory;
+  private final IntPriorityQueue.KeyFactory keyQueueFactory;
+
+  /** Up to this maximal weight, {@link #forIntWeights(int)} uses buckets */
+  public static final int MAX_BUCKET_WEIGHT = 1 << 16;
+
+  /** A search using a Fibonacci heap as priority queue */
+  public DijkstraShortestPath() {
+    this(IntPriorityQueue.FIBONACCI);
+  }
+
+  /** A search using the priority queues created by queueFactory */
+  public DijkstraShortestPath(IntPriorityQueue.Factory queueFactory) {
+    this.queueFactory = queueFactory;
+    this.keyQueueFactory = null;
+  }
+
+  /** A search using the int key priority queues created by queueFactory,
+   *  like {@link IntPriorityQueue#RADIX}. This only works for non-negative
+   *  Integer weights and an {@link IntMonoid}, the distances are the keys.
+   */
+  public DijkstraShortestPath(IntPriorityQueue.KeyFactory queueFactory) {
+    this.queueFactory = null;
+    this.keyQueueFactory = queueFactory;
+  }
 
-    Comparator<Integer> compareVertices =
-      new Comparator<Integer>() {
-      public int compare(Integer vertex1, Integer vertex2) {
+  /** Return a search for non-negative Integer weights of at most maxWeight,
+   *  to be used with an {@link IntMonoid}. Small weights use Dial's bucket
+   *  queue, bigger ones a radix heap.
+   */
+  public static <EdgeInfo> DijkstraShortestPath<EdgeInfo, Integer>
+  forIntWeights(int maxWeight) {
+    return new DijkstraShortestPath<EdgeInfo, Integer>(
+        maxWeight <= MAX_BUCKET_WEIGHT
+        ? IntPriorityQueue.buckets(maxWeight)
+        : IntPriorityQueue.RADIX);
+  }
+
+  /** Create the priority queue for g, ordered by distance */
+  private IntPriorityQueue newQueue(Graph<EdgeInfo> g,
+      final OrderedMonoid<T> ops) {
+    if (keyQueueFactory != null) {
+      if (! (ops instanceof IntMonoid)) {
+        throw new IllegalArgumentException(
+            "int key priority queues need an IntMonoid");
+      }
+      return keyQueueFactory.create(g.getNumberOfVertices(),
+          (vertex) -> (Integer) distance.get(vertex));
+    }
+    IntComparator compareVertices = new IntComparator() {
+      @Override
+      public int compare(int vertex1, int vertex2) {
         T dist1 = distance.get(vertex1);
         T dist2 = distance.get(vertex2);
         if (dist1 == null) {
@@ -63,18 +105,22 @@ public class DijkstraShortestPath<EdgeInfo, T> {
         return ops.compare(dist1, dist2);
       }
     };
+    return queueFactory.create(g.getNumberOfVertices(), compareVertices);
+  }
+
+  private Integer shortestPath(Graph<EdgeInfo> g, int startVertex,
+      final OrderedMonoid<T> ops, final Function<Edge<EdgeInfo>, T> getWeight,
+      VertexBooleanPropertyMap endVertices) {
+    predecessor = new VertexListPropertyMap<Edge<EdgeInfo>>(g);
+    distance = new VertexListPropertyMap<T>(g);
 
-    FibonacciHeapBase<Integer> q =
-      new FibonacciHeapBase<Integer>(compareVertices);
+    IntPriorityQueue q = newQueue(g, ops);
 
     distance.put(startVertex, ops.getZero());
-    heapNodes.put(startVertex, q.insert(startVertex));
+    q.insert(startVertex);
 
     while (! q.isEmpty()) {
-      HeapNode<Integer> minNode = q.minimum();
-      int vertex = q.getValue(minNode);
-      q.removeMinimum();
-      heapNodes.remove(vertex);
+      int vertex = q.extractMin();
       // stop prematurely if a final vertex is reached
       if (endVertices.get(vertex)) {
         return vertex;
@@ -92,11 +138,10 @@ public class DijkstraShortestPath<EdgeInfo, T> {
         if (distance.get(target) == null
             || ops.compare(alt, distance.get(target)) < 0) {
           distance.put(target, alt);
-          HeapNode<Integer> targetHeapNode = heapNodes.get(target);
-          if (targetHeapNode == null) {
-            heapNodes.put(target, q.insert(target));
+          if (q.contains(target)) {
+            q.decreaseKey(target);
           } else {
-            q.decreaseKey(targetHeapNode);
+            q.insert(target);
           }
           predecessor.put(target, outEdge);
         }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.digraph.algo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.dfki.lt.loot.digraph.Edge;
+import de.dfki.lt.loot.digraph.Graph;
+import de.dfki.lt.loot.jada.ConcurrentPartition;
+
+/** Computes the connected components of an
+ *  {@link de.dfki.lt.loot.digraph.UndirectedGraph} with a number of threads
+ *  sharing one {@link ConcurrentPartition}. The threads take chunks of
+ *  vertices and union every vertex with the neighbours on its edges, so no
+ *  traversal order and no locking is involved.
+ *
+ *  Applied to a directed graph, the result are the weakly connected
+ *  components. The graph must not be modified during the computation.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class ParallelComponents {
+
+  /** The number of vertices a thread takes at once */
+  private static final int CHUNK_SIZE = 1024;
+
+  /** Return the partition of the vertices of graph into its connected
+   *  components, computed with the given number of threads. Deleted vertices
+   *  end up in singleton classes.
+   */
+  public static <EdgeInfo> ConcurrentPartition
+  connect(final Graph<EdgeInfo> graph, int threads) {
+    final int n = graph.getNumberOfVertices();
+    final ConcurrentPartition partition = new ConcurrentPartition(n);
+    final AtomicInteger nextChunk = new AtomicInteger();
+    Runnable worker = new Runnable() {
+      @Override
+      public void run() {
+        int from;
+        while ((from = nextChunk.getAndAdd(CHUNK_SIZE)) < n) {
+          int to = Math.min(n, from + CHUNK_SIZE);
+          for (int v = from; v < to; ++v) {
+            if (! graph.isVertex(v)) continue;
+            for (Edge<EdgeInfo> edge : graph.getOutEdges(v)) {
+              partition.union(v, edge.getTargetForSource(v));
+            }
+          }
+        }
+      }
+    };
+
+    if (threads <= 1) {
+      worker.run();
+      return partition;
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(threads);
+      for (int i = 0; i < threads; ++i) {
+        tasks.add(Executors.callable(worker));
+      }
+      for (Future<Object> result : pool.invokeAll(tasks)) {
+        result.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted", ex);
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      if (cause instanceof Error) throw (Error) cause;
+      throw new IllegalStateException(cause);
+    } finally {
+      pool.shutdown();
+    }
+    return partition;
+  }
+
+  /** Return the connected components of graph, computed with as many threads
+   *  as there are processors.
+   */
+  public static <EdgeInfo> ConcurrentPartition
+  connect(Graph<EdgeInfo> graph) {
+    return connect(graph, Runtime.getRuntime().availableProcessors());
+  }
+}
@@ -17,6 +17,8 @@
 package de.dfki.lt.loot.fsa;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 import de.dfki.lt.loot.digraph.*;
@@ -55,7 +57,20 @@ public class CharFsa extends FiniteAutomaton<Character> {
     return isFinalState(current);
   }
 
+  /** The constructions that turn a regular expression into an automaton */
+  public enum RegexConstruction {
+    /** Thompson's construction, which uses epsilon edges */
+    THOMPSON,
+    /** The Glushkov position automaton, which has no epsilon edges */
+    GLUSHKOV
+  }
+
   public static CharFsa compileRegex(String regex) {
+    return compileRegex(regex, RegexConstruction.THOMPSON);
+  }
+
+  public static CharFsa compileRegex(String regex,
+      RegexConstruction construction) {
     boolean result = false;
     RegexParser p = new RegexParser(regex);
     try {
@@ -66,7 +81,8 @@ public class CharFsa extends FiniteAutomaton<Character> {
       return null;
     }
     if (result) {
-      return p.getAutomaton();
+      return (construction == RegexConstruction.GLUSHKOV)
+          ? p.getTree().glushkov() : p.getAutomaton();
     }
     return null;
   }
@@ -78,24 +94,6 @@ public class CharFsa extends FiniteAutomaton<Character> {
   }
 
 
-  private void addWord(String word) {
-    int current = getInitialState();
-    for (int i = 0; i < word.length(); ++i) {
-      Edge<Character> outEdge =
-        findEdge(current, word.charAt(i), _comp);
-      int nextState = -1;
-      if (outEdge == null) {
-        nextState = newVertex();
-        newEdge(word.charAt(i), current, nextState);
-      } else {
-        nextState = outEdge.getTarget();
-      }
-      current = nextState;
-    }
-    setFinalState(current);
-  }
-
-
   public static ArrayList<String> readLexicon(String filename)
     throws FileNotFoundException, IOException {
     ArrayList<String> result = new ArrayList<String>();
@@ -111,31 +109,54 @@ public class CharFsa extends FiniteAutomaton<Character> {
     return result;
   }
 
+  /** Build the minimal deterministic automaton for the given list of words.
+   *  The words need not be sorted.
+   *  @see LexiconBuilder
+   */
   public static CharFsa lexiconAutomaton(Collection<String> lexicon){
-    CharFsa result = new CharFsa();
-    result.setInitialState(result.newVertex());
-    for(String line : lexicon) {
-      result.addWord(line);
-    }
-    return result;
+    return LexiconBuilder.build(lexicon);
   }
 
 
-  /** Build an nondeterministic Automaton from a list of words */
+  /** Build the minimal deterministic automaton from a file containing one
+   *  word per line. If the words are sorted, they are streamed into a
+   *  {@link LexiconBuilder} without keeping the word list in memory,
+   *  otherwise the whole file is read and sorted.
+   */
   public static CharFsa readLexiconAutomaton(String filename)
     throws FileNotFoundException, IOException {
+    LexiconBuilder builder = new LexiconBuilder();
+    try (BufferedReader in =
+        new BufferedReader(new InputStreamReader(new FileInputStream(filename),
+                                                 "ISO-8859-1"))) {
+      String line = null;
+      String previous = null;
+      while ((line = in.readLine()) != null) {
+        if (previous != null && line.compareTo(previous) < 0) {
+          // not sorted, fall back to sorting a copy of the lexicon
+          return lexiconAutomaton(readLexicon(filename));
+        }
+        builder.addWord(line);
+        previous = line;
+      }
+    }
+    return builder.finish();
+  }
 
-    BufferedReader in =
-      new BufferedReader(new InputStreamReader(new FileInputStream(filename),
-                                               "ISO-8859-1"));
+  /** Save this automaton in the binary format of {@link FsaBinaryIO} */
+  public void saveAsBinary(Path binPath) throws IOException {
+    try (OutputStream out = Files.newOutputStream(binPath)) {
+      FsaBinaryIO.write(this, FsaBinaryIO.CHARS, out);
+    }
+  }
+
+  /** Read an automaton in the binary format of {@link FsaBinaryIO} */
+  public static CharFsa readFromBinary(Path binPath) throws IOException {
     CharFsa result = new CharFsa();
-    result.setInitialState(result.newVertex());
-    String line = null;
-    while ((line = in.readLine()) != null) {
-      result.addWord(line);
+    try (InputStream in =
+        new BufferedInputStream(Files.newInputStream(binPath))) {
+      FsaBinaryIO.read(in, FsaBinaryIO.CHARS, result);
     }
-    in.close();
-    System.out.println(result.getNumberOfVertices() + " Zustände");
     return result;
   }
 
@@ -290,6 +311,122 @@ public class CharFsa extends FiniteAutomaton<Character> {
     out.close();
   }
 
+  // ======================================================================
+  // Word numbering (perfect hashing) for acyclic automata
+  // ======================================================================
+
+  /** The name of the property map containing the word counts */
+  public static final String WORD_COUNTS = "wordCounts";
+
+  /** Return the registered word count map, or throw an exception if there is
+   *  none.
+   */
+  private VertexIntPropertyMap getWordCounts() {
+    VertexIntPropertyMap counts =
+        (VertexIntPropertyMap) getPropertyMap(WORD_COUNTS);
+    if (counts == null) {
+      throw new IllegalStateException("No word counts, call computeWordCounts");
+    }
+    return counts;
+  }
+
+  /** Annotate every state of this deterministic and acyclic automaton with
+   *  the number of words accepted starting from this state. The counts are
+   *  registered as property map {@link #WORD_COUNTS} and allow to map words
+   *  to their (lexicographic) position in the lexicon and back, using
+   *  {@link #wordToIndex(String)} and {@link #indexToWord(int)}.
+   *
+   *  The counts have to be recomputed whenever the automaton is modified.
+   *
+   *  @throws CyclicGraphException if the automaton contains a cycle
+   */
+  public void computeWordCounts() throws CyclicGraphException {
+    VertexIntPropertyMap counts = new VertexIntPropertyMap(this, 0);
+    List<Integer> order = topoSort(getInitialState());
+    ListIterator<Integer> it = order.listIterator(order.size());
+    // in inverse topological order, all successors are counted already
+    while (it.hasPrevious()) {
+      int state = it.previous();
+      int count = isFinalState(state) ? 1 : 0;
+      for (Edge<Character> e : getOutEdges(state)) {
+        count += counts.getInt(e.getTarget());
+      }
+      counts.putInt(state, count);
+    }
+    register(WORD_COUNTS, counts);
+  }
+
+  /** Return the number of words in the lexicon, which requires that
+   *  {@link #computeWordCounts()} was called.
+   */
+  public int getNumberOfWords() {
+    return getWordCounts().getInt(getInitialState());
+  }
+
+  /** Return the position of word in the lexicographically sorted lexicon, or
+   *  -1 if the word is not in the lexicon. Requires that
+   *  {@link #computeWordCounts()} was called.
+   */
+  public int wordToIndex(String word) {
+    VertexIntPropertyMap counts = getWordCounts();
+    int current = getInitialState();
+    int index = 0;
+    for (int i = 0; i < word.length(); ++i) {
+      char c = word.charAt(i);
+      if (isFinalState(current)) {
+        ++index;
+      }
+      int next = -1;
+      // all words continuing with a smaller character are in front of word
+      for (Edge<Character> e : getOutEdges(current)) {
+        char label = e.getInfo();
+        if (label < c) {
+          index += counts.getInt(e.getTarget());
+        } else if (label == c) {
+          next = e.getTarget();
+        }
+      }
+      if (next < 0) return -1;
+      current = next;
+    }
+    return isFinalState(current) ? index : -1;
+  }
+
+  /** Return the word at the given position of the lexicographically sorted
+   *  lexicon, or null if the index is out of range. Requires that
+   *  {@link #computeWordCounts()} was called.
+   */
+  public String indexToWord(int index) {
+    VertexIntPropertyMap counts = getWordCounts();
+    int current = getInitialState();
+    if (index < 0 || index >= counts.getInt(current)) return null;
+    StringBuilder sb = new StringBuilder();
+    List<Edge<Character>> edges = new ArrayList<Edge<Character>>();
+    Comparator<Edge<Character>> byLabel =
+        (e1, e2) -> _comp.compare(e1.getInfo(), e2.getInfo());
+    while (true) {
+      if (isFinalState(current)) {
+        if (index == 0) break;
+        --index;
+      }
+      edges.clear();
+      for (Edge<Character> e : getOutEdges(current)) {
+        edges.add(e);
+      }
+      edges.sort(byLabel);
+      for (Edge<Character> e : edges) {
+        int count = counts.getInt(e.getTarget());
+        if (index < count) {
+          sb.append(e.getInfo().charValue());
+          current = e.getTarget();
+          break;
+        }
+        index -= count;
+      }
+    }
+    return sb.toString();
+  }
+
   /*
   private static String fileBaseName(String filename) {
     return filename.substring(0,filename.lastIndexOf('.'));
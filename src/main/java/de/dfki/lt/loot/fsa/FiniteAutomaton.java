@@ -29,7 +29,7 @@ import java.util.Set;
 
 import de.dfki.lt.loot.digraph.*;
 import de.dfki.lt.loot.digraph.io.GraphPrinterFactory;
-import de.dfki.lt.loot.fsa.algo.Determinization;
+import de.dfki.lt.loot.fsa.algo.Equivalence;
 
 public class FiniteAutomaton<EdgeInfo> extends DiGraph<EdgeInfo>
 implements AbstractAutomaton<EdgeInfo> {
@@ -903,46 +903,28 @@ implements AbstractAutomaton<EdgeInfo> {
 
   /**
    * Checks if this automaton accepts the same language as the given automaton.
+   * See {@link Equivalence#findCounterexample} to get a word that shows the
+   * difference.
    *
    * @param aut
    *          a finite automaton
    * @return a flag indicating equivalence
    */
   public boolean isEquivalent(FiniteAutomaton<EdgeInfo> aut) {
+    return Equivalence.isEquivalent(this, aut, this._comp);
+  }
 
-    // get the complement of this automaton
-    FiniteAutomaton<EdgeInfo> complement = this.complement();
-    // change the complement so that it has only ONE final state
-    int newFinalState = complement.newVertex();
-    int currentFinalState = -1;
-    while ((currentFinalState = complement._finalStates.nextSetBit(currentFinalState + 1)) != -1) {
-      complement.newEdge(EPSILON, currentFinalState, newFinalState);
-    }
-    complement._finalStates.clear();
-    complement.setFinalState(newFinalState);
-    // get the corresponding sub automaton
-    SubAutomaton subComplement =
-      new SubAutomaton(complement.getInitialState(), newFinalState);
-
-    // add the other automaton
-    SubAutomaton subAut = complement.addAutomaton(aut);
-
-    // create union
-    complement.alternative(subComplement, subAut);
-
-    // determinize and finalize automaton
-    complement.setInitialState(subComplement.getInitialState());
-    complement._finalStates.clear();
-    complement.setFinalState(subComplement.getFinalState());
-
-    FiniteAutomaton<EdgeInfo> detAut = new FiniteAutomaton<EdgeInfo>();
-    detAut._comp = this._comp;
-    Determinization.determinize(complement, this._comp, detAut);
-    // TODO activate again when minimization is working correctly
-    //Minimization.minimize(detAut, this._comp);
-
-    // automaton are equivalent if resulting automaton accepts everything
-    return detAut.acceptsAll();
+
+  /**
+   * Checks if the language of this automaton is a subset of the language of
+   * the given automaton.
+   *
+   * @param aut
+   *          a finite automaton
+   * @return a flag indicating inclusion
+   */
+  public boolean isSubsetOf(FiniteAutomaton<EdgeInfo> aut) {
+    return Equivalence.isSubset(this, aut, this._comp);
   }
 
 
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.dfki.lt.loot.digraph.Edge;
+import de.dfki.lt.loot.digraph.VertexIntPropertyMap;
+import de.dfki.lt.loot.digraph.VertexPropertyMap;
+
+/**
+ * {@link FsaBinaryIO} reads and writes finite automata in a compact binary
+ * format:
+ *
+ * <pre>
+ * magic "LFSA", version byte
+ * number of symbols, symbols (written by a {@link LabelCodec})
+ * number of states, initial state plus one (zero if there is none)
+ * final states as bit set, (number of states + 7) / 8 bytes
+ * for every state: number of edges, (symbol, target) for every edge
+ * optional sections: section tag, section data; tag 0 ends the list
+ * </pre>
+ *
+ * All numbers are unsigned variable length integers (seven bits per byte,
+ * high bit set if more bytes follow). Symbol 0 is epsilon, the others are
+ * indices into the symbol table plus one. The states are renumbered densely.
+ *
+ * The only optional section so far holds the word counts of
+ * {@link CharFsa#computeWordCounts()} (tag 1, one count per state), which
+ * are registered again as property map {@link CharFsa#WORD_COUNTS} when the
+ * automaton is read. Version 1 files have no optional sections.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class FsaBinaryIO {
+
+  private static final int MAGIC = 0x4c465341; // "LFSA"
+
+  public static final int VERSION = 2;
+
+  /** Tags of the optional sections */
+  private static final int END_OF_SECTIONS = 0, WORD_COUNTS = 1;
+
+  /** Reads and writes the edge labels of an automaton */
+  public interface LabelCodec<EdgeInfo> {
+    void write(DataOutput out, EdgeInfo label) throws IOException;
+    EdgeInfo read(DataInput in) throws IOException;
+  }
+
+  /** The codec for characters */
+  public static final LabelCodec<Character> CHARS =
+      new LabelCodec<Character>() {
+    @Override
+    public void write(DataOutput out, Character c) throws IOException {
+      out.writeChar(c);
+    }
+    @Override
+    public Character read(DataInput in) throws IOException {
+      return in.readChar();
+    }
+  };
+
+  /** The codec for strings */
+  public static final LabelCodec<String> STRINGS = new LabelCodec<String>() {
+    @Override
+    public void write(DataOutput out, String s) throws IOException {
+      out.writeUTF(s);
+    }
+    @Override
+    public String read(DataInput in) throws IOException {
+      return in.readUTF();
+    }
+  };
+
+  static void writeVarInt(DataOutput out, int value) throws IOException {
+    while ((value & ~0x7f) != 0) {
+      out.writeByte((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  static int readVarInt(DataInput in) throws IOException {
+    int result = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.readUnsignedByte();
+      result |= (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) return result;
+    }
+    throw new IOException("malformed variable length integer");
+  }
+
+  /** Write fsa to out, the stream is not closed */
+  public static <EdgeInfo> void write(FiniteAutomaton<EdgeInfo> fsa,
+      LabelCodec<EdgeInfo> codec, OutputStream out) throws IOException {
+    // dense state numbers and symbol table
+    int[] index = new int[fsa.getNumberOfVertices()];
+    int n = 0;
+    Map<EdgeInfo, Integer> symbols = new HashMap<EdgeInfo, Integer>();
+    List<EdgeInfo> symbolList = new ArrayList<EdgeInfo>();
+    for (int v = 0; v < index.length; ++v) {
+      if (! fsa.isVertex(v)) continue;
+      index[v] = n++;
+      for (Edge<EdgeInfo> e : fsa.getOutEdges(v)) {
+        EdgeInfo info = e.getInfo();
+        if (! fsa.isEpsilon(info) && ! symbols.containsKey(info)) {
+          symbols.put(info, symbolList.size() + 1);
+          symbolList.add(info);
+        }
+      }
+    }
+
+    DataOutputStream data =
+        new DataOutputStream(new BufferedOutputStream(out));
+    data.writeInt(MAGIC);
+    data.writeByte(VERSION);
+    writeVarInt(data, symbolList.size());
+    for (EdgeInfo symbol : symbolList) {
+      codec.write(data, symbol);
+    }
+    writeVarInt(data, n);
+    int initial = fsa.getInitialState();
+    writeVarInt(data,
+        initial >= 0 && fsa.isVertex(initial) ? index[initial] + 1 : 0);
+    byte[] finals = new byte[(n + 7) / 8];
+    for (int v = 0; v < index.length; ++v) {
+      if (fsa.isVertex(v) && fsa.isFinalState(v)) {
+        finals[index[v] >>> 3] |= 1 << (index[v] & 7);
+      }
+    }
+    data.write(finals);
+    List<Edge<EdgeInfo>> edges = new ArrayList<Edge<EdgeInfo>>();
+    for (int v = 0; v < index.length; ++v) {
+      if (! fsa.isVertex(v)) continue;
+      edges.clear();
+      for (Edge<EdgeInfo> e : fsa.getOutEdges(v)) {
+        edges.add(e);
+      }
+      writeVarInt(data, edges.size());
+      for (Edge<EdgeInfo> e : edges) {
+        EdgeInfo info = e.getInfo();
+        writeVarInt(data, fsa.isEpsilon(info) ? 0 : symbols.get(info));
+        writeVarInt(data, index[e.getTarget()]);
+      }
+    }
+    VertexPropertyMap<?> counts = fsa.getPropertyMap(CharFsa.WORD_COUNTS);
+    if (counts instanceof VertexIntPropertyMap) {
+      writeVarInt(data, WORD_COUNTS);
+      for (int v = 0; v < index.length; ++v) {
+        if (fsa.isVertex(v)) {
+          writeVarInt(data, ((VertexIntPropertyMap) counts).getInt(v));
+        }
+      }
+    }
+    writeVarInt(data, END_OF_SECTIONS);
+    data.flush();
+  }
+
+  /** Read a varint that must be in [0, bound[
+   *
+   * @throws IOException if it is not
+   */
+  private static int readIndex(DataInputStream in, int bound)
+      throws IOException {
+    int value = readVarInt(in);
+    if (value < 0 || value >= bound) {
+      throw new IOException("corrupt automaton");
+    }
+    return value;
+  }
+
+  /** Read an automaton from in into result, which must be a fresh
+   *  automaton and is passed as parameter to make it possible to use this
+   *  method for subclasses. The stream is not closed, and exactly the bytes
+   *  of the automaton are consumed, so more data may follow it. The stream
+   *  is not buffered here, callers reading from files should pass a
+   *  buffered stream.
+   *
+   * @throws IOException if reading fails, or the data is not a valid
+   *         automaton, e.g., because symbol or state numbers are out of range
+   */
+  public static <EdgeInfo> void read(InputStream in,
+      LabelCodec<EdgeInfo> codec, FiniteAutomaton<EdgeInfo> result)
+          throws IOException {
+    DataInputStream data = new DataInputStream(in);
+    if (data.readInt() != MAGIC) {
+      throw new IOException("not a binary automaton");
+    }
+    int version = data.readUnsignedByte();
+    if (version < 1 || version > VERSION) {
+      throw new IOException("unsupported version " + version);
+    }
+    int noSymbols = readIndex(data, Integer.MAX_VALUE);
+    List<EdgeInfo> symbols = new ArrayList<EdgeInfo>(noSymbols + 1);
+    symbols.add(result.getEpsilon());
+    for (int i = 0; i < noSymbols; ++i) {
+      symbols.add(codec.read(data));
+    }
+    int n = readIndex(data, Integer.MAX_VALUE);
+    int offset = result.getNumberOfVertices();
+    for (int i = 0; i < n; ++i) {
+      result.newVertex();
+    }
+    int initial = readIndex(data, n + 1);
+    if (initial > 0) {
+      result.setInitialState(offset + initial - 1);
+    }
+    byte[] finals = new byte[(n + 7) / 8];
+    data.readFully(finals);
+    for (int i = 0; i < n; ++i) {
+      if ((finals[i >>> 3] & (1 << (i & 7))) != 0) {
+        result.setFinalState(offset + i);
+      }
+    }
+    for (int v = 0; v < n; ++v) {
+      int noEdges = readIndex(data, Integer.MAX_VALUE);
+      for (int i = 0; i < noEdges; ++i) {
+        EdgeInfo info = symbols.get(readIndex(data, symbols.size()));
+        result.newEdge(info, offset + v, offset + readIndex(data, n));
+      }
+    }
+    if (version == 1) return;
+    int section;
+    while ((section = readVarInt(data)) != END_OF_SECTIONS) {
+      if (section != WORD_COUNTS) {
+        throw new IOException("unknown section " + section);
+      }
+      VertexIntPropertyMap counts = new VertexIntPropertyMap(result, 0);
+      for (int v = 0; v < n; ++v) {
+        counts.putInt(offset + v, readVarInt(data));
+      }
+      result.register(CharFsa.WORD_COUNTS, counts);
+    }
+  }
+}
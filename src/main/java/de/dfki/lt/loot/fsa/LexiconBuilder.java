@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.dfki.lt.loot.digraph.Edge;
+
+/**
+ * {@link LexiconBuilder} constructs the minimal deterministic automaton for a
+ * set of words incrementally, without building the full trie first.
+ *
+ * The algorithm is the one for sorted input from
+ * Daciuk, Mihov, Watson, Watson "Incremental Construction of Minimal Acyclic
+ * Finite-State Automata" ('00). Words have to be added in lexicographic order
+ * (as defined by {@link String#compareTo(String)}). Only the states on the
+ * path of the last word added are not yet minimized. Whenever a new word is
+ * added, the part of this path that is not shared with the new word is
+ * replaced by equivalent states from the register, or its states are put into
+ * the register.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class LexiconBuilder {
+
+  /** The signature of a state for the register: finality plus the sorted
+   *  outgoing edges (label and target). Two states with the same signature
+   *  are equivalent if all their successors are already in the register.
+   */
+  private static class StateSignature {
+    private final int[] _sig;
+    private final int _hash;
+
+    StateSignature(CharFsa fsa, int state) {
+      List<Edge<Character>> edges = new ArrayList<Edge<Character>>();
+      for (Edge<Character> e : fsa.getOutEdges(state)) {
+        edges.add(e);
+      }
+      _sig = new int[2 * edges.size() + 1];
+      _sig[0] = fsa.isFinalState(state) ? 1 : 0;
+      int i = 1;
+      // the edges are added in sorted order by the builder
+      for (Edge<Character> e : edges) {
+        _sig[i++] = e.getInfo();
+        _sig[i++] = e.getTarget();
+      }
+      _hash = Arrays.hashCode(_sig);
+    }
+
+    @Override
+    public int hashCode() {
+      return _hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return (o instanceof StateSignature)
+          && Arrays.equals(_sig, ((StateSignature) o)._sig);
+    }
+  }
+
+  /** The automaton under construction, null when finished */
+  private CharFsa _fsa;
+
+  /** The register of minimized states */
+  private Map<StateSignature, Integer> _register;
+
+  /** The last word added */
+  private String _previous;
+
+  /** The states on the path of the previous word, _path[0] is the initial
+   *  state, _path[i] is the state reached after i characters.
+   */
+  private int[] _path;
+
+  /** _pathEdges[i] is the edge from _path[i] to _path[i + 1] */
+  private List<Edge<Character>> _pathEdges;
+
+  /** Create a new builder for an empty lexicon */
+  public LexiconBuilder() {
+    _fsa = new CharFsa();
+    _fsa.setInitialState(_fsa.newVertex());
+    _register = new HashMap<StateSignature, Integer>();
+    _previous = null;
+    _path = new int[16];
+    _path[0] = _fsa.getInitialState();
+    _pathEdges = new ArrayList<Edge<Character>>();
+  }
+
+  /** Add a word to the lexicon. Words must be added in sorted order,
+   *  duplicates are ignored.
+   *
+   * @throws IllegalArgumentException if the word is smaller than the one added
+   *         before
+   * @throws IllegalStateException if {@link #finish()} was already called
+   */
+  public void addWord(String word) {
+    if (_fsa == null) {
+      throw new IllegalStateException("Lexicon automaton already finished");
+    }
+    int prefix = 0;
+    if (_previous != null) {
+      int cmp = word.compareTo(_previous);
+      if (cmp < 0) {
+        throw new IllegalArgumentException("Words not sorted: " + word
+            + " added after " + _previous);
+      }
+      if (cmp == 0) return;
+      int max = Math.min(word.length(), _previous.length());
+      while (prefix < max && word.charAt(prefix) == _previous.charAt(prefix)) {
+        ++prefix;
+      }
+      replaceOrRegister(prefix);
+    }
+
+    // add the suffix that is not shared with the previous word
+    if (_path.length <= word.length()) {
+      _path = Arrays.copyOf(_path, Math.max(word.length() + 1,
+          2 * _path.length));
+    }
+    while (_pathEdges.size() > prefix) {
+      _pathEdges.remove(_pathEdges.size() - 1);
+    }
+    int current = _path[prefix];
+    for (int i = prefix; i < word.length(); ++i) {
+      int next = _fsa.newVertex();
+      _pathEdges.add(_fsa.newEdge(word.charAt(i), current, next));
+      _path[i + 1] = next;
+      current = next;
+    }
+    _fsa.setFinalState(current);
+    _previous = word;
+  }
+
+  /** Minimize the states on the path of the previous word that lie behind
+   *  the first downTo characters, starting from the end of the path.
+   */
+  private void replaceOrRegister(int downTo) {
+    for (int i = _previous.length(); i > downTo; --i) {
+      int child = _path[i];
+      StateSignature sig = new StateSignature(_fsa, child);
+      Integer equiv = _register.get(sig);
+      if (equiv != null) {
+        _fsa.changeEndVertex(_pathEdges.get(i - 1), equiv);
+        // now there are no more edges pointing to child, and its out edges
+        // point to registered states only
+        _fsa.removeVertexLazy(child);
+      } else {
+        _register.put(sig, child);
+      }
+    }
+  }
+
+  /** Minimize the remaining path and return the minimal automaton. The
+   *  builder can not be used anymore after this call.
+   */
+  public CharFsa finish() {
+    if (_fsa == null) {
+      throw new IllegalStateException("Lexicon automaton already finished");
+    }
+    if (_previous != null) {
+      replaceOrRegister(0);
+    }
+    CharFsa result = _fsa;
+    _fsa = null;
+    _register = null;
+    _pathEdges = null;
+    return result;
+  }
+
+  /** Build the minimal automaton for the given words, which need not be
+   *  sorted. If they are not, a sorted copy is created first.
+   */
+  public static CharFsa build(Collection<String> words) {
+    Iterable<String> sorted = words;
+    String last = null;
+    for (String word : words) {
+      if (last != null && word.compareTo(last) < 0) {
+        List<String> copy = new ArrayList<String>(words);
+        Collections.sort(copy);
+        sorted = copy;
+        break;
+      }
+      last = word;
+    }
+    LexiconBuilder builder = new LexiconBuilder();
+    for (String word : sorted) {
+      builder.addWord(word);
+    }
+    return builder.finish();
+  }
+}
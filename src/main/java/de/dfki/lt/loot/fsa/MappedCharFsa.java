@@ -0,0 +1,380 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.dfki.lt.loot.digraph.Edge;
+import de.dfki.lt.loot.digraph.VertexIntPropertyMap;
+import de.dfki.lt.loot.digraph.VertexPropertyMap;
+
+/**
+ * {@link MappedCharFsa} is a read-only deterministic character automaton
+ * that is queried in place in a {@link ByteBuffer}, usually a file that is
+ * mapped into memory with {@link #map(Path)}. Nothing is deserialized, so
+ * opening an image is instant, and processes that map the same file share
+ * its pages through the operating system's page cache.
+ *
+ * The image is written with {@link #write(CharFsa, Path)} and has the
+ * following layout, all numbers are big-endian:
+ *
+ * <pre>
+ * int magic "LFSI", int version, int states, int edges, int initial state,
+ * int flags, bit 0 set if there are word counts
+ * int[states + 1] index of the first edge of every state, the highest bit
+ *                 is set for final states
+ * int[edges]      edge targets
+ * char[edges]     edge labels, sorted for every state
+ * int[states]     word counts, if present
+ * </pre>
+ *
+ * Transitions are found by binary search over the labels of a state. States
+ * are numbered densely from zero. The mapping must fit into 2GB.
+ *
+ * If the automaton had word counts (see {@link CharFsa#computeWordCounts()})
+ * when it was written, the image contains them, and words can be mapped to
+ * their index in the lexicon and back with {@link #wordToIndex(CharSequence)}
+ * and {@link #indexToWord(int)}. Version 1 images without flags and word
+ * counts can still be read.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class MappedCharFsa {
+
+  private static final int MAGIC = 0x4c465349; // "LFSI"
+
+  public static final int VERSION = 2;
+
+  private static final int HEADER_SIZE_V1 = 20, HEADER_SIZE = 24;
+
+  private static final int FINAL_BIT = 0x80000000;
+
+  private static final int HAS_WORD_COUNTS = 1;
+
+  private final ByteBuffer _image;
+
+  private final int _noStates, _noEdges, _initialState;
+
+  /** Byte offsets of the sections of the image, _counts is -1 if there are
+   *  no word counts
+   */
+  private final int _offsets, _targets, _labels, _counts;
+
+  /** Wrap image, which must contain an automaton written by
+   *  {@link #write(CharFsa, Path)}, starting at position zero.
+   *
+   * @throws IOException if image does not contain an automaton image
+   */
+  public MappedCharFsa(ByteBuffer image) throws IOException {
+    _image = image;
+    if (image.capacity() < HEADER_SIZE_V1 || image.getInt(0) != MAGIC) {
+      throw new IOException("not an automaton image");
+    }
+    int version = image.getInt(4);
+    if (version < 1 || version > VERSION) {
+      throw new IOException("unsupported version " + version);
+    }
+    _noStates = image.getInt(8);
+    _noEdges = image.getInt(12);
+    _initialState = image.getInt(16);
+    int flags = (version == 1) ? 0 : image.getInt(20);
+    _offsets = (version == 1) ? HEADER_SIZE_V1 : HEADER_SIZE;
+    _targets = _offsets + 4 * (_noStates + 1);
+    _labels = _targets + 4 * _noEdges;
+    int end = _labels + 2 * _noEdges;
+    if ((flags & HAS_WORD_COUNTS) != 0) {
+      _counts = end;
+      end += 4 * _noStates;
+    } else {
+      _counts = -1;
+    }
+    if (image.capacity() < end) {
+      throw new IOException("truncated automaton image");
+    }
+  }
+
+  /** Map the image file at path read-only into memory. The file must not
+   *  be modified while it is mapped.
+   */
+  public static MappedCharFsa map(Path path) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.READ)) {
+      // the mapping stays valid after the channel is closed
+      return new MappedCharFsa(
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /** Write the image of fsa, which must be deterministic and must not
+   *  contain epsilon edges, to path. The word counts of fsa, if it has any,
+   *  are written too.
+   *
+   * @throws IllegalArgumentException if fsa is not deterministic
+   */
+  public static void write(CharFsa fsa, Path path) throws IOException {
+    int[] index = new int[fsa.getNumberOfVertices()];
+    int noStates = 0, noEdges = 0;
+    for (int v : fsa) {
+      index[v] = noStates++;
+      for (Edge<Character> e : fsa.getOutEdges(v)) {
+        if (fsa.isEpsilon(e.getInfo())) {
+          throw new IllegalArgumentException("automaton has epsilon edges");
+        }
+        ++noEdges;
+      }
+    }
+    int initial = fsa.getInitialState();
+    initial = initial >= 0 && fsa.isVertex(initial) ? index[initial] : -1;
+    VertexPropertyMap<?> map = fsa.getPropertyMap(CharFsa.WORD_COUNTS);
+    VertexIntPropertyMap counts =
+        map instanceof VertexIntPropertyMap ? (VertexIntPropertyMap) map : null;
+
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(path)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(noStates);
+      out.writeInt(noEdges);
+      out.writeInt(initial);
+      out.writeInt(counts != null ? HAS_WORD_COUNTS : 0);
+
+      // edges sorted by label: (label << 32) | target
+      List<long[]> edges = new ArrayList<long[]>(noStates);
+      int first = 0;
+      for (int v : fsa) {
+        List<Edge<Character>> outEdges = new ArrayList<Edge<Character>>();
+        for (Edge<Character> e : fsa.getOutEdges(v)) {
+          outEdges.add(e);
+        }
+        long[] sorted = new long[outEdges.size()];
+        for (int i = 0; i < sorted.length; ++i) {
+          Edge<Character> e = outEdges.get(i);
+          sorted[i] = ((long) e.getInfo() << 32) | index[e.getTarget()];
+        }
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; ++i) {
+          if ((sorted[i] >>> 32) == (sorted[i - 1] >>> 32)) {
+            throw new IllegalArgumentException(
+                "automaton is not deterministic");
+          }
+        }
+        edges.add(sorted);
+        out.writeInt(fsa.isFinalState(v) ? (first | FINAL_BIT) : first);
+        first += sorted.length;
+      }
+      out.writeInt(first);
+      for (long[] sorted : edges) {
+        for (long edge : sorted) {
+          out.writeInt((int) edge);
+        }
+      }
+      for (long[] sorted : edges) {
+        for (long edge : sorted) {
+          out.writeChar((char) (edge >>> 32));
+        }
+      }
+      if (counts != null) {
+        for (int v : fsa) {
+          out.writeInt(counts.getInt(v));
+        }
+      }
+    }
+  }
+
+  public int getNumberOfStates() {
+    return _noStates;
+  }
+
+  public int getNumberOfEdges() {
+    return _noEdges;
+  }
+
+  /** Return the initial state, or -1 if there is none */
+  public int getInitialState() {
+    return _initialState;
+  }
+
+  public boolean isFinalState(int state) {
+    return (_image.getInt(_offsets + 4 * state) & FINAL_BIT) != 0;
+  }
+
+  private int firstEdge(int state) {
+    return _image.getInt(_offsets + 4 * state) & ~FINAL_BIT;
+  }
+
+  /** Return the target of the transition of state under c, or -1 if there is
+   *  none.
+   */
+  public int next(int state, char c) {
+    int lo = firstEdge(state);
+    int hi = firstEdge(state + 1) - 1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      char label = _image.getChar(_labels + 2 * mid);
+      if (label < c) {
+        lo = mid + 1;
+      } else if (label > c) {
+        hi = mid - 1;
+      } else {
+        return _image.getInt(_targets + 4 * mid);
+      }
+    }
+    return -1;
+  }
+
+  /** Return the state reached from state by reading input, or -1 if the
+   *  automaton gets stuck.
+   */
+  public int walk(int state, CharSequence input) {
+    for (int i = 0; state >= 0 && i < input.length(); ++i) {
+      state = next(state, input.charAt(i));
+    }
+    return state;
+  }
+
+  /** Return true if input is accepted by the automaton */
+  public boolean deterministicMatch(CharSequence input) {
+    if (_initialState < 0) return false;
+    int state = walk(_initialState, input);
+    return state >= 0 && isFinalState(state);
+  }
+
+  /** Return true if input is a prefix of an accepted string. This requires
+   *  that the automaton has no dead states, like a minimized one.
+   */
+  public boolean isPrefix(CharSequence input) {
+    return _initialState >= 0 && walk(_initialState, input) >= 0;
+  }
+
+  /** Return the end position of the longest match starting at start, or -1 if
+   *  there is no match starting at this position.
+   */
+  public int longestMatch(CharSequence input, int start) {
+    int state = _initialState;
+    if (state < 0) return -1;
+    int end = isFinalState(state) ? start : -1;
+    for (int i = start; i < input.length(); ++i) {
+      state = next(state, input.charAt(i));
+      if (state < 0) break;
+      if (isFinalState(state)) {
+        end = i + 1;
+      }
+    }
+    return end;
+  }
+
+  /** Return the number of outgoing transitions of state */
+  public int getNumberOfTransitions(int state) {
+    return firstEdge(state + 1) - firstEdge(state);
+  }
+
+  /** Return the label of the i-th transition of state, in sorted order */
+  public char getLabel(int state, int i) {
+    return _image.getChar(_labels + 2 * (firstEdge(state) + i));
+  }
+
+  /** Return the target of the i-th transition of state, in sorted order */
+  public int getTarget(int state, int i) {
+    return _image.getInt(_targets + 4 * (firstEdge(state) + i));
+  }
+
+  /** Does the image contain word counts? */
+  public boolean hasWordCounts() {
+    return _counts >= 0;
+  }
+
+  /** Return the word count of state, or throw an exception if there are no
+   *  word counts
+   */
+  private int count(int state) {
+    if (_counts < 0) {
+      throw new IllegalStateException("image has no word counts");
+    }
+    return _image.getInt(_counts + 4 * state);
+  }
+
+  /** Return the number of words in the lexicon, which requires word counts */
+  public int getNumberOfWords() {
+    return _initialState < 0 ? 0 : count(_initialState);
+  }
+
+  /** Return the position of word in the lexicographically sorted lexicon, or
+   *  -1 if the word is not in the lexicon, see
+   *  {@link CharFsa#wordToIndex(String)}. Requires word counts.
+   */
+  public int wordToIndex(CharSequence word) {
+    int current = _initialState;
+    if (current < 0 || count(current) == 0) return -1;
+    int index = 0;
+    for (int i = 0; i < word.length(); ++i) {
+      char c = word.charAt(i);
+      if (isFinalState(current)) {
+        ++index;
+      }
+      // all words continuing with a smaller character are in front of word
+      int next = -1;
+      for (int e = firstEdge(current); e < firstEdge(current + 1); ++e) {
+        char label = _image.getChar(_labels + 2 * e);
+        if (label >= c) {
+          if (label == c) next = _image.getInt(_targets + 4 * e);
+          break;
+        }
+        index += count(_image.getInt(_targets + 4 * e));
+      }
+      if (next < 0) return -1;
+      current = next;
+    }
+    return isFinalState(current) ? index : -1;
+  }
+
+  /** Return the word at the given position of the lexicographically sorted
+   *  lexicon, or null if the index is out of range, see
+   *  {@link CharFsa#indexToWord(int)}. Requires word counts.
+   */
+  public String indexToWord(int index) {
+    int current = _initialState;
+    if (index < 0 || index >= getNumberOfWords()) return null;
+    StringBuilder sb = new StringBuilder();
+    while (true) {
+      if (isFinalState(current)) {
+        if (index == 0) break;
+        --index;
+      }
+      for (int e = firstEdge(current); e < firstEdge(current + 1); ++e) {
+        int target = _image.getInt(_targets + 4 * e);
+        int count = count(target);
+        if (index < count) {
+          sb.append(_image.getChar(_labels + 2 * e));
+          current = target;
+          break;
+        }
+        index -= count;
+      }
+    }
+    return sb.toString();
+  }
+}
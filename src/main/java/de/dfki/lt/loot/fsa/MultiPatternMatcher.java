@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TCharIntHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.dfki.lt.loot.digraph.Edge;
+import de.dfki.lt.loot.fsa.algo.Determinization;
+import de.dfki.lt.loot.fsa.algo.Minimization;
+
+/**
+ * {@link MultiPatternMatcher} matches many regular expressions at once and
+ * reports which of them match. The pattern id is the index of the pattern in
+ * the list given to the constructor.
+ *
+ * The patterns are compiled into one non-deterministic automaton, whose
+ * final states know the pattern they belong to. During determinization, every
+ * state of the deterministic automaton gets the set of patterns of the final
+ * states in its subset, and the minimization only merges states with the same
+ * set of patterns, so the minimal automaton still knows which patterns
+ * match.
+ *
+ * The matcher does not change after construction and may be shared between
+ * threads.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class MultiPatternMatcher {
+
+  /** Receives the matches found by
+   *  {@link MultiPatternMatcher#findAll(CharSequence, MatchHandler)}
+   */
+  public interface MatchHandler {
+    /** The patterns in patternIds match input[start..end[. The array is
+     *  shared and must not be modified.
+     */
+    void match(int start, int end, int[] patternIds);
+  }
+
+  private static final int[] NO_PATTERNS = new int[0];
+
+  /** The minimal deterministic automaton */
+  private final CharFsa _dfa;
+
+  /** The sorted pattern ids of every state of _dfa, empty for non-final
+   *  states
+   */
+  private final int[][] _patterns;
+
+  /** The transitions of every state of _dfa */
+  private final TCharIntHashMap[] _trans;
+
+  /** Compile the patterns into a matcher.
+   *
+   * @throws IllegalArgumentException if one of the patterns is not a valid
+   *         regular expression
+   */
+  public MultiPatternMatcher(List<String> patterns) {
+    // the union of all patterns, and the pattern of every final state
+    CharFsa nfa = new CharFsa();
+    TIntArrayList patternOf = new TIntArrayList();
+    int initial = nfa.newVertex();
+    nfa.setInitialState(initial);
+    patternOf.add(-1);
+    for (int id = 0; id < patterns.size(); ++id) {
+      CharFsa fsa = CharFsa.compileRegex(patterns.get(id));
+      if (fsa == null) {
+        throw new IllegalArgumentException(
+            "invalid pattern " + id + ": " + patterns.get(id));
+      }
+      int[] map = new int[fsa.getNumberOfVertices()];
+      for (int v : fsa) {
+        map[v] = nfa.newVertex();
+        patternOf.add(fsa.isFinalState(v) ? id : -1);
+        if (fsa.isFinalState(v)) {
+          nfa.setFinalState(map[v]);
+        }
+      }
+      for (int v : fsa) {
+        for (Edge<Character> e : fsa.getOutEdges(v)) {
+          nfa.newEdge(e.getInfo(), map[v], map[e.getTarget()]);
+        }
+      }
+      nfa.newEdge(nfa.getEpsilon(), initial, map[fsa.getInitialState()]);
+    }
+
+    _dfa = new CharFsa();
+    Map<TIntHashSet, Integer> subsets = Determinization.determinize(nfa,
+        new int[]{ initial }, nfa.getComparator(), _dfa);
+
+    // the pattern sets of the deterministic states, equal sets are shared
+    _patterns = new int[_dfa.getNumberOfVertices()][];
+    int[] patternClass = new int[_dfa.getNumberOfVertices()];
+    Map<TIntArrayList, Integer> classes = new HashMap<TIntArrayList, Integer>();
+    List<int[]> classPatterns = new ArrayList<int[]>();
+    classes.put(new TIntArrayList(), 0);
+    classPatterns.add(NO_PATTERNS);
+    TIntHashSet ids = new TIntHashSet();
+    for (Map.Entry<TIntHashSet, Integer> entry : subsets.entrySet()) {
+      ids.clear();
+      for (int q : entry.getKey().toArray()) {
+        if (patternOf.get(q) >= 0) ids.add(patternOf.get(q));
+      }
+      int[] sorted = ids.toArray();
+      Arrays.sort(sorted);
+      TIntArrayList key = TIntArrayList.wrap(sorted);
+      Integer c = classes.get(key);
+      if (c == null) {
+        c = classPatterns.size();
+        classes.put(key, c);
+        classPatterns.add(sorted);
+      }
+      patternClass[entry.getValue()] = c;
+      _patterns[entry.getValue()] = classPatterns.get(c);
+    }
+
+    Minimization.minimize(_dfa, _dfa.getComparator(), patternClass);
+
+    _trans = new TCharIntHashMap[_dfa.getNumberOfVertices()];
+    for (int v : _dfa) {
+      TCharIntHashMap map = new TCharIntHashMap(4, 0.5f, (char) 0, -1);
+      for (Edge<Character> e : _dfa.getOutEdges(v)) {
+        map.put(e.getInfo(), e.getTarget());
+      }
+      _trans[v] = map;
+    }
+  }
+
+  /** Return the minimal deterministic automaton of all patterns, which must
+   *  not be modified. Use {@link #getPatterns(int)} to get the patterns of its
+   *  states.
+   */
+  public CharFsa getAutomaton() {
+    return _dfa;
+  }
+
+  /** Return the sorted ids of the patterns that are accepted in state of
+   *  {@link #getAutomaton()}. The array is shared and must not be modified.
+   */
+  public int[] getPatterns(int state) {
+    return _patterns[state];
+  }
+
+  /** Return the sorted ids of the patterns that match the complete input */
+  public int[] match(CharSequence input) {
+    int state = _dfa.getInitialState();
+    for (int i = 0; i < input.length(); ++i) {
+      state = _trans[state].get(input.charAt(i));
+      if (state < 0) return NO_PATTERNS;
+    }
+    return _patterns[state];
+  }
+
+  /** Report all (start, end) positions of input where at least one pattern
+   *  matches input[start..end[ to handler, together with the ids of the
+   *  matching patterns. Matches are reported ordered by start, then end
+   *  position.
+   */
+  public void findAll(CharSequence input, MatchHandler handler) {
+    int initial = _dfa.getInitialState();
+    for (int start = 0; start <= input.length(); ++start) {
+      int state = initial;
+      int end = start;
+      while (true) {
+        if (_patterns[state].length > 0) {
+          handler.match(start, end, _patterns[state]);
+        }
+        if (end == input.length()) break;
+        state = _trans[state].get(input.charAt(end++));
+        if (state < 0) break;
+      }
+    }
+  }
+}
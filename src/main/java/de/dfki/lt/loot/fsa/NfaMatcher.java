@@ -0,0 +1,342 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import gnu.trove.map.hash.TCharIntHashMap;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import de.dfki.lt.loot.digraph.Edge;
+import de.dfki.lt.loot.fsa.algo.EpsilonRemoval;
+
+/**
+ * {@link NfaMatcher} simulates a (possibly non-deterministic) {@link CharFsa}
+ * directly on the input, without determinizing it first.
+ *
+ * The set of active states is kept as a bit set in a <code>long[]</code>.
+ * Epsilon closures and, for every input character, the closed target sets of
+ * all states are computed once in the constructor, so that every input
+ * character costs at most one OR of a target set per active state. This gives
+ * linear time matching with a constant that depends on the number of states,
+ * which is a good choice for NFAs with up to some hundred states.
+ *
+ * The matcher does not change after construction and may be shared between
+ * threads. If the automaton is modified, a new matcher has to be created.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class NfaMatcher {
+
+  /** The size of the state bit sets in longs */
+  private final int _words;
+
+  /** Maps an input character to its index in {@link #_targets} */
+  private final TCharIntHashMap _charIndex;
+
+  /** _targets[c][s] is the epsilon-closed set of states reachable from s with
+   *  the character with index c, or null if there is no such transition
+   */
+  private final long[][][] _targets;
+
+  /** _hasTransition[c] contains all states with an outgoing edge for the
+   *  character with index c
+   */
+  private final long[][] _hasTransition;
+
+  /** The epsilon closure of the initial state */
+  private final long[] _initial;
+
+  /** The final states of the automaton */
+  private final long[] _final;
+
+  /** Create a new matcher for the given automaton. */
+  public NfaMatcher(CharFsa fsa) {
+    int noStates = fsa.getNumberOfVertices();
+    _words = (noStates + 63) >>> 6;
+
+    // assign dense indices to the characters of the alphabet
+    _charIndex = new TCharIntHashMap(fsa.getAlphabet().size() * 2, 0.5f,
+        (char) 0, -1);
+    for (Character c : fsa.getAlphabet()) {
+      if (! fsa.isEpsilon(c)) {
+        _charIndex.put(c, _charIndex.size());
+      }
+    }
+
+    int[][] closures = EpsilonRemoval.epsilonClosures(fsa);
+    long[][] closure = new long[noStates][];
+    _final = new long[_words];
+    for (int v = 0; v < noStates; ++v) {
+      if (fsa.isVertex(v)) {
+        closure[v] = new long[_words];
+        for (int q : closures[v]) {
+          set(closure[v], q);
+        }
+        if (fsa.isFinalState(v)) {
+          set(_final, v);
+        }
+      }
+    }
+    _initial = closure[fsa.getInitialState()];
+
+    _targets = new long[_charIndex.size()][noStates][];
+    _hasTransition = new long[_charIndex.size()][_words];
+    for (int v = 0; v < noStates; ++v) {
+      if (! fsa.isVertex(v)) continue;
+      for (Edge<Character> e : fsa.getOutEdges(v)) {
+        if (fsa.isEpsilon(e.getInfo())) continue;
+        int c = _charIndex.get(e.getInfo());
+        if (_targets[c][v] == null) {
+          _targets[c][v] = new long[_words];
+          set(_hasTransition[c], v);
+        }
+        or(_targets[c][v], closure[e.getTarget()]);
+      }
+    }
+  }
+
+  private static void set(long[] bits, int i) {
+    bits[i >>> 6] |= 1L << i;
+  }
+
+  private static void or(long[] to, long[] from) {
+    for (int i = 0; i < to.length; ++i) {
+      to[i] |= from[i];
+    }
+  }
+
+  private static boolean isEmpty(long[] bits) {
+    for (long w : bits) {
+      if (w != 0) return false;
+    }
+    return true;
+  }
+
+  private static boolean intersects(long[] a, long[] b) {
+    for (int i = 0; i < a.length; ++i) {
+      if ((a[i] & b[i]) != 0) return true;
+    }
+    return false;
+  }
+
+  /** Compute the successors of the states in active for character c into
+   *  next, which is cleared first.
+   */
+  private void step(long[] active, char c, long[] next) {
+    Arrays.fill(next, 0L);
+    int ci = _charIndex.get(c);
+    if (ci < 0) return;
+    long[] hasTrans = _hasTransition[ci];
+    long[][] targets = _targets[ci];
+    for (int w = 0; w < _words; ++w) {
+      long bits = active[w] & hasTrans[w];
+      while (bits != 0) {
+        int state = (w << 6) + Long.numberOfTrailingZeros(bits);
+        or(next, targets[state]);
+        bits &= bits - 1;
+      }
+    }
+  }
+
+  /** Return true if the automaton accepts the complete input */
+  public boolean matches(CharSequence input) {
+    long[] active = _initial.clone();
+    long[] next = new long[_words];
+    for (int i = 0; i < input.length(); ++i) {
+      step(active, input.charAt(i), next);
+      if (isEmpty(next)) return false;
+      long[] h = active; active = next; next = h;
+    }
+    return intersects(active, _final);
+  }
+
+  /** Return true if the automaton accepts the complete input read from the
+   *  given reader. The reader is consumed until the end, or until no state is
+   *  active anymore, and is not closed.
+   */
+  public boolean matches(Reader in) throws IOException {
+    long[] active = _initial.clone();
+    long[] next = new long[_words];
+    char[] buffer = new char[4096];
+    int len;
+    while ((len = in.read(buffer)) >= 0) {
+      for (int i = 0; i < len; ++i) {
+        step(active, buffer[i], next);
+        if (isEmpty(next)) return false;
+        long[] h = active; active = next; next = h;
+      }
+    }
+    return intersects(active, _final);
+  }
+
+  /** Return the end position of the longest match starting at start, or -1 if
+   *  there is no match starting at this position.
+   */
+  public int longestMatch(CharSequence input, int start) {
+    long[] active = _initial.clone();
+    long[] next = new long[_words];
+    int end = intersects(active, _final) ? start : -1;
+    for (int i = start; i < input.length(); ++i) {
+      step(active, input.charAt(i), next);
+      if (isEmpty(next)) break;
+      long[] h = active; active = next; next = h;
+      if (intersects(active, _final)) {
+        end = i + 1;
+      }
+    }
+    return end;
+  }
+
+  /** Return the end position of the first (shortest) match ending earliest
+   *  after from, or -1 if there is no match in input[from..]. All start
+   *  positions are tried in parallel by adding the initial states in every
+   *  step.
+   */
+  private int firstMatchEnd(CharSequence input, int from) {
+    long[] active = _initial.clone();
+    long[] next = new long[_words];
+    if (intersects(active, _final)) return from;
+    for (int i = from; i < input.length(); ++i) {
+      step(active, input.charAt(i), next);
+      or(next, _initial);
+      long[] h = active; active = next; next = h;
+      if (intersects(active, _final)) {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
+  /** Return true if some substring of input is accepted by the automaton */
+  public boolean find(CharSequence input) {
+    return firstMatchEnd(input, 0) >= 0;
+  }
+
+  /** Find the leftmost-longest match in input, starting the search at from.
+   *
+   *  This is one unanchored pass over the input that keeps the start position
+   *  of every active state in a list ordered by start. If two start positions
+   *  reach the same state, the smaller one wins, since every match of the
+   *  other one is also a match of it. Once a match was found, no new starts
+   *  are added, and the states of later starts are dropped; the pass ends
+   *  when no state of the best start is active anymore. So every character is
+   *  read at most once, the time is linear in the length of the input.
+   *
+   * @return an array containing start and end of the match, or null if no
+   *         match was found
+   */
+  public int[] find(CharSequence input, int from) {
+    int noStates = _words << 6;
+    // the active states, ordered by start, their start positions, and the
+    // same for the next step
+    int[] list = new int[noStates], nextList = new int[noStates];
+    int[] start = new int[noStates], nextStart = new int[noStates];
+    long[] active = new long[_words], next = new long[_words];
+    int size = addInitial(active, list, 0, start, from);
+    int bestStart = -1, bestEnd = -1;
+    if (intersects(_initial, _final)) {
+      bestStart = bestEnd = from;
+    }
+    for (int i = from; i < input.length() && size > 0; ++i) {
+      Arrays.fill(next, 0L);
+      int nextSize = 0;
+      int ci = _charIndex.get(input.charAt(i));
+      if (ci >= 0) {
+        long[][] targets = _targets[ci];
+        for (int k = 0; k < size; ++k) {
+          int state = list[k];
+          // states of later starts can not give a better match
+          if (bestStart >= 0 && start[state] > bestStart) break;
+          long[] target = targets[state];
+          if (target == null) continue;
+          for (int w = 0; w < _words; ++w) {
+            long bits = target[w] & ~next[w];
+            next[w] |= bits;
+            while (bits != 0) {
+              int q = (w << 6) + Long.numberOfTrailingZeros(bits);
+              nextList[nextSize++] = q;
+              nextStart[q] = start[state];
+              bits &= bits - 1;
+            }
+          }
+        }
+      }
+      if (bestStart < 0) {
+        nextSize = addInitial(next, nextList, nextSize, nextStart, i + 1);
+      }
+      long[] h = active; active = next; next = h;
+      int[] l = list; list = nextList; nextList = l;
+      l = start; start = nextStart; nextStart = l;
+      size = nextSize;
+      // the first final state in the list has the smallest start
+      for (int k = 0; k < size; ++k) {
+        int state = list[k];
+        if ((_final[state >>> 6] & (1L << state)) != 0) {
+          if (bestStart < 0 || start[state] <= bestStart) {
+            bestStart = start[state];
+            bestEnd = i + 1;
+          }
+          break;
+        }
+      }
+    }
+    return bestStart < 0 ? null : new int[] { bestStart, bestEnd };
+  }
+
+  /** Add the initial states that are not yet in active to active and to
+   *  list, which contains size states, with start position pos.
+   *
+   * @return the new size of the list
+   */
+  private int addInitial(long[] active, int[] list, int size, int[] start,
+      int pos) {
+    for (int w = 0; w < _words; ++w) {
+      long bits = _initial[w] & ~active[w];
+      active[w] |= bits;
+      while (bits != 0) {
+        int q = (w << 6) + Long.numberOfTrailingZeros(bits);
+        list[size++] = q;
+        start[q] = pos;
+        bits &= bits - 1;
+      }
+    }
+    return size;
+  }
+
+  /** Return true if some part of the input read from the reader is accepted
+   *  by the automaton. Reading stops after the first match was found, the
+   *  reader is not closed.
+   */
+  public boolean find(Reader in) throws IOException {
+    long[] active = _initial.clone();
+    long[] next = new long[_words];
+    if (intersects(active, _final)) return true;
+    char[] buffer = new char[4096];
+    int len;
+    while ((len = in.read(buffer)) >= 0) {
+      for (int i = 0; i < len; ++i) {
+        step(active, buffer[i], next);
+        or(next, _initial);
+        long[] h = active; active = next; next = h;
+        if (intersects(active, _final)) return true;
+      }
+    }
+    return false;
+  }
+}
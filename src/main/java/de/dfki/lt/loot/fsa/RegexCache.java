@@ -0,0 +1,234 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.dfki.lt.loot.digraph.Edge;
+import de.dfki.lt.loot.fsa.algo.Minimization;
+
+/**
+ * {@link RegexCache} is a thread-safe cache for automata compiled from
+ * regular expressions, keyed by the pattern and the compile options.
+ *
+ * The cache is bounded by the total weight of the automata, which is the
+ * number of states plus the number of edges. When a new automaton exceeds
+ * the bound, the least recently used ones are evicted. Compilation happens
+ * outside of the lock, so two threads may compile the same pattern at the
+ * same time, but only one result is kept.
+ *
+ * The cache holds the automata in the compact binary format of
+ * {@link FsaBinaryIO}, which can not be modified, and every call of
+ * {@link #get(String, CharFsa.RegexConstruction, boolean)} returns a fresh
+ * automaton decoded from it. So callers own the result and may change it,
+ * e.g., determinize or minimize it in place, without affecting other callers
+ * or the weight of the cache. Decoding is linear in the size of the automaton
+ * and much cheaper than compiling it.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class RegexCache {
+
+  /** The cache key: pattern plus compile options */
+  private static final class Key {
+    final String pattern;
+    final CharFsa.RegexConstruction construction;
+    final boolean minimize;
+
+    Key(String p, CharFsa.RegexConstruction c, boolean m) {
+      pattern = p;
+      construction = c;
+      minimize = m;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (! (o instanceof Key)) return false;
+      Key k = (Key) o;
+      return pattern.equals(k.pattern) && construction == k.construction
+          && minimize == k.minimize;
+    }
+
+    @Override
+    public int hashCode() {
+      return (pattern.hashCode() * 31 + construction.hashCode()) * 2
+          + (minimize ? 1 : 0);
+    }
+  }
+
+  private static final class Entry {
+    /** The automaton in the format of FsaBinaryIO */
+    final byte[] image;
+    final long weight;
+
+    Entry(byte[] i, long w) {
+      image = i;
+      weight = w;
+    }
+  }
+
+  /** The entries in access order, the eldest entry comes first */
+  private final LinkedHashMap<Key, Entry> _cache =
+      new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+
+  private final long _maxWeight;
+
+  private long _weight = 0;
+
+  private long _hits = 0, _misses = 0, _evictions = 0;
+
+  /** Create a cache whose automata have at most maxWeight states and edges */
+  public RegexCache(long maxWeight) {
+    _maxWeight = maxWeight;
+  }
+
+  /** Return the weight of fsa: the number of states plus edges */
+  public static long weight(CharFsa fsa) {
+    long result = 0;
+    for (int v : fsa) {
+      ++result;
+      Iterator<Edge<Character>> it = fsa.getOutEdges(v).iterator();
+      for (; it.hasNext(); it.next()) {
+        ++result;
+      }
+    }
+    return result;
+  }
+
+  /** Return the binary image of fsa */
+  private static byte[] encode(CharFsa fsa) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      FsaBinaryIO.write(fsa, FsaBinaryIO.CHARS, out);
+    } catch (IOException e) {
+      // byte array streams do not throw
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  /** Return a new automaton decoded from image */
+  private static CharFsa decode(byte[] image) {
+    CharFsa result = new CharFsa();
+    try {
+      FsaBinaryIO.read(new ByteArrayInputStream(image), FsaBinaryIO.CHARS,
+          result);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return result;
+  }
+
+  /** Return the Thompson automaton for regex, see
+   *  {@link #get(String, CharFsa.RegexConstruction, boolean)}
+   */
+  public CharFsa get(String regex) {
+    return get(regex, CharFsa.RegexConstruction.THOMPSON, false);
+  }
+
+  /** Return the automaton for regex, compiling it if it is not in the cache.
+   *  The result belongs to the caller and is not shared.
+   *
+   * @param construction the construction used by
+   *        {@link CharFsa#compileRegex(String, CharFsa.RegexConstruction)}
+   * @param minimize if true, return the minimal deterministic automaton
+   * @return the automaton, or null if regex is not a valid expression
+   */
+  public CharFsa get(String regex, CharFsa.RegexConstruction construction,
+      boolean minimize) {
+    Key key = new Key(regex, construction, minimize);
+    synchronized (this) {
+      Entry entry = _cache.get(key);
+      if (entry != null) {
+        ++_hits;
+        return decode(entry.image);
+      }
+      ++_misses;
+    }
+
+    CharFsa fsa = CharFsa.compileRegex(regex, construction);
+    if (fsa == null) return null;
+    if (minimize) {
+      CharFsa min = new CharFsa();
+      Minimization.minimize(fsa, fsa.getComparator(), min);
+      fsa = min;
+    }
+    long weight = weight(fsa);
+    if (weight > _maxWeight) {
+      return fsa;
+    }
+    // fsa itself goes to the caller, the cache keeps its image
+    byte[] image = encode(fsa);
+
+    synchronized (this) {
+      if (_cache.containsKey(key)) {
+        // another thread was faster, its result is equivalent
+        return fsa;
+      }
+      _cache.put(key, new Entry(image, weight));
+      _weight += weight;
+      Iterator<Map.Entry<Key, Entry>> it = _cache.entrySet().iterator();
+      while (_weight > _maxWeight) {
+        _weight -= it.next().getValue().weight;
+        it.remove();
+        ++_evictions;
+      }
+    }
+    return fsa;
+  }
+
+  /** Remove all automata from the cache, the statistics are not reset */
+  public synchronized void clear() {
+    _cache.clear();
+    _weight = 0;
+  }
+
+  /** Return the number of automata in the cache */
+  public synchronized int size() {
+    return _cache.size();
+  }
+
+  /** Return the total weight of the automata in the cache */
+  public synchronized long getWeight() {
+    return _weight;
+  }
+
+  public synchronized long getHits() {
+    return _hits;
+  }
+
+  public synchronized long getMisses() {
+    return _misses;
+  }
+
+  public synchronized long getEvictions() {
+    return _evictions;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("%d automata, weight %d/%d, %d hits, %d misses, "
+        + "%d evictions", _cache.size(), _weight, _maxWeight, _hits, _misses,
+        _evictions);
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.hash.TLongHashSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link RegexNode} is a node of the parse tree that {@link RegexParser}
+ * produces for a regular expression. The tree can be compiled into an
+ * automaton in two ways:
+ *
+ * - the Thompson construction, which combines sub automata with epsilon
+ *   edges, see {@link FiniteAutomaton#concatenate(FiniteAutomaton.SubAutomaton,
+ *   FiniteAutomaton.SubAutomaton)} and friends
+ * - the Glushkov (position automaton) construction, which has no epsilon
+ *   edges and one state per character (set) in the expression plus the
+ *   initial state
+ *
+ * Reference: Glushkov "The abstract theory of automata" ('61), Berry, Sethi
+ * "From regular expressions to deterministic automata" ('86)
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class RegexNode {
+
+  /** The kinds of nodes */
+  public enum Type { CHAR, CHARSET, CONCAT, ALT, STAR }
+
+  private final Type _type;
+
+  /** The characters of a CHAR or CHARSET node */
+  private final Set<Character> _chars;
+
+  private final RegexNode _left, _right;
+
+  private RegexNode(Type type, Set<Character> chars,
+      RegexNode left, RegexNode right) {
+    _type = type;
+    _chars = chars;
+    _left = left;
+    _right = right;
+  }
+
+  public static RegexNode character(char c) {
+    return new RegexNode(Type.CHAR, Collections.singleton(c), null, null);
+  }
+
+  public static RegexNode charSet(Set<Character> chars) {
+    return new RegexNode(Type.CHARSET, chars, null, null);
+  }
+
+  public static RegexNode concatenate(RegexNode left, RegexNode right) {
+    return new RegexNode(Type.CONCAT, null, left, right);
+  }
+
+  public static RegexNode alternative(RegexNode left, RegexNode right) {
+    return new RegexNode(Type.ALT, null, left, right);
+  }
+
+  public static RegexNode kleene(RegexNode sub) {
+    return new RegexNode(Type.STAR, null, sub, null);
+  }
+
+  public Type getType() { return _type; }
+
+  /** Build the Thompson automaton for this node into fsa */
+  public CharFsa.SubAutomaton thompson(CharFsa fsa) {
+    switch (_type) {
+    case CHAR: return fsa.newCharAutomaton(_chars.iterator().next());
+    case CHARSET: return fsa.newCharSetAutomaton(_chars);
+    case CONCAT:
+      return fsa.concatenate(_left.thompson(fsa), _right.thompson(fsa));
+    case ALT:
+      return fsa.alternative(_left.thompson(fsa), _right.thompson(fsa));
+    default: // STAR
+      return fsa.kleene(_left.thompson(fsa));
+    }
+  }
+
+  /** Nullability, first and last positions of a node */
+  private static class Positions {
+    boolean nullable;
+    TIntArrayList first = new TIntArrayList();
+    TIntArrayList last = new TIntArrayList();
+  }
+
+  /** The state of the Glushkov construction */
+  private static class Glushkov {
+    CharFsa fsa = new CharFsa();
+    /** The characters of every position, position 0 is the initial state */
+    List<Set<Character>> chars = new ArrayList<Set<Character>>();
+    /** The follow pairs that were already added */
+    TLongHashSet follows = new TLongHashSet();
+
+    Glushkov() {
+      fsa.setInitialState(fsa.newVertex());
+      chars.add(null);
+    }
+
+    /** Add the edges from position p into position q */
+    void follow(int p, int q) {
+      if (! follows.add(((long) p << 32) | q)) return;
+      for (char c : chars.get(q)) {
+        fsa.newEdge(c, p, q);
+      }
+    }
+
+    /** Add the follow edges from all positions in from to all in to */
+    void follow(TIntArrayList from, TIntArrayList to) {
+      for (int i = 0; i < from.size(); ++i) {
+        for (int j = 0; j < to.size(); ++j) {
+          follow(from.getQuick(i), to.getQuick(j));
+        }
+      }
+    }
+
+    Positions build(RegexNode node) {
+      Positions result = new Positions();
+      switch (node._type) {
+      case CHAR:
+      case CHARSET: {
+        int pos = fsa.newVertex();
+        chars.add(node._chars);
+        result.nullable = false;
+        result.first.add(pos);
+        result.last.add(pos);
+        break;
+      }
+      case CONCAT: {
+        Positions l = build(node._left);
+        Positions r = build(node._right);
+        follow(l.last, r.first);
+        result.nullable = l.nullable && r.nullable;
+        result.first.addAll(l.first);
+        if (l.nullable) result.first.addAll(r.first);
+        if (r.nullable) result.last.addAll(l.last);
+        result.last.addAll(r.last);
+        break;
+      }
+      case ALT: {
+        Positions l = build(node._left);
+        Positions r = build(node._right);
+        result.nullable = l.nullable || r.nullable;
+        result.first.addAll(l.first);
+        result.first.addAll(r.first);
+        result.last.addAll(l.last);
+        result.last.addAll(r.last);
+        break;
+      }
+      case STAR: {
+        result = build(node._left);
+        follow(result.last, result.first);
+        result.nullable = true;
+        break;
+      }
+      }
+      return result;
+    }
+  }
+
+  /** Build the Glushkov automaton for this node, which has no epsilon
+   *  edges, and one state for each character or character set of the
+   *  expression, plus the initial state.
+   */
+  public CharFsa glushkov() {
+    Glushkov g = new Glushkov();
+    Positions root = g.build(this);
+    int initial = g.fsa.getInitialState();
+    for (int i = 0; i < root.first.size(); ++i) {
+      g.follow(initial, root.first.getQuick(i));
+    }
+    for (int i = 0; i < root.last.size(); ++i) {
+      g.fsa.setFinalState(root.last.getQuick(i));
+    }
+    if (root.nullable) {
+      g.fsa.setFinalState(initial);
+    }
+    return g.fsa;
+  }
+}
@@ -135,7 +135,7 @@ public class RegexParser
   private int _line;
   private int _charPos;
 
-  private CharFsa.SubAutomaton _lval;
+  private RegexNode _lval;
 
   YYLexer(Reader in) {
     _in = in;
@@ -215,10 +215,10 @@ public class RegexParser
     case '[':
       Set<Character> chars = getCharSet();
       if (chars == null) return EOF;
-      _lval = _result.newCharSetAutomaton(chars);
+      _lval = RegexNode.charSet(chars);
       return CharSet;
     }
-    _lval = _result.newCharAutomaton((char) nextChar);
+    _lval = RegexNode.character((char) nextChar);
     return Token;
   }
 
@@ -424,7 +424,7 @@ public class RegexParser
     
 /* Line 351 of lalr1.java  */
 /* Line 141 of "RegexParser.y"  */
-    { _result.setStates((( CharFsa.SubAutomaton )(yystack.valueAt (1-(1))))); };
+    { _tree = (( RegexNode )(yystack.valueAt (1-(1)))); };
   break;
     
 
@@ -433,7 +433,7 @@ public class RegexParser
     
 /* Line 351 of lalr1.java  */
 /* Line 154 of "RegexParser.y"  */
-    { yyval = (( CharFsa.SubAutomaton )(yystack.valueAt (1-(1)))) ; };
+    { yyval = (( RegexNode )(yystack.valueAt (1-(1)))) ; };
   break;
     
 
@@ -442,7 +442,7 @@ public class RegexParser
     
 /* Line 351 of lalr1.java  */
 /* Line 155 of "RegexParser.y"  */
-    { yyval = (( CharFsa.SubAutomaton )(yystack.valueAt (1-(1)))) ; };
+    { yyval = (( RegexNode )(yystack.valueAt (1-(1)))) ; };
   break;
     
 
@@ -452,7 +452,7 @@ public class RegexParser
 /* Line 351 of lalr1.java  */
 /* Line 158 of "RegexParser.y"  */
     {
-              yyval = _result.concatenate(_result.kleene((( CharFsa.SubAutomaton )(yystack.valueAt (3-(1))))), (( CharFsa.SubAutomaton )(yystack.valueAt (3-(3)))));
+              yyval = RegexNode.concatenate(RegexNode.kleene((( RegexNode )(yystack.valueAt (3-(1))))), (( RegexNode )(yystack.valueAt (3-(3)))));
             };
   break;
     
@@ -462,7 +462,7 @@ public class RegexParser
     
 /* Line 351 of lalr1.java  */
 /* Line 161 of "RegexParser.y"  */
-    { yyval = _result.kleene((( CharFsa.SubAutomaton )(yystack.valueAt (2-(1))))) ; };
+    { yyval = RegexNode.kleene((( RegexNode )(yystack.valueAt (2-(1))))) ; };
   break;
     
 
@@ -471,7 +471,7 @@ public class RegexParser
     
 /* Line 351 of lalr1.java  */
 /* Line 162 of "RegexParser.y"  */
-    { yyval = _result.concatenate((( CharFsa.SubAutomaton )(yystack.valueAt (2-(1)))), (( CharFsa.SubAutomaton )(yystack.valueAt (2-(2))))); };
+    { yyval = RegexNode.concatenate((( RegexNode )(yystack.valueAt (2-(1)))), (( RegexNode )(yystack.valueAt (2-(2))))); };
   break;
     
 
@@ -480,7 +480,7 @@ public class RegexParser
     
 /* Line 351 of lalr1.java  */
 /* Line 163 of "RegexParser.y"  */
-    { yyval = (( CharFsa.SubAutomaton )(yystack.valueAt (1-(1)))) ; };
+    { yyval = (( RegexNode )(yystack.valueAt (1-(1)))) ; };
   break;
     
 
@@ -490,7 +490,7 @@ public class RegexParser
 /* Line 351 of lalr1.java  */
 /* Line 166 of "RegexParser.y"  */
     {
-              yyval = _result.alternative(_result.kleene((( CharFsa.SubAutomaton )(yystack.valueAt (4-(1))))), (( CharFsa.SubAutomaton )(yystack.valueAt (4-(4)))));
+              yyval = RegexNode.alternative(RegexNode.kleene((( RegexNode )(yystack.valueAt (4-(1))))), (( RegexNode )(yystack.valueAt (4-(4)))));
             };
   break;
     
@@ -500,7 +500,7 @@ public class RegexParser
     
 /* Line 351 of lalr1.java  */
 /* Line 169 of "RegexParser.y"  */
-    { yyval = _result.alternative((( CharFsa.SubAutomaton )(yystack.valueAt (3-(1)))), (( CharFsa.SubAutomaton )(yystack.valueAt (3-(3))))); };
+    { yyval = RegexNode.alternative((( RegexNode )(yystack.valueAt (3-(1)))), (( RegexNode )(yystack.valueAt (3-(3))))); };
   break;
     
 
@@ -509,7 +509,7 @@ public class RegexParser
     
 /* Line 351 of lalr1.java  */
 /* Line 172 of "RegexParser.y"  */
-    { yyval = (( CharFsa.SubAutomaton )(yystack.valueAt (1-(1)))) ; };
+    { yyval = (( RegexNode )(yystack.valueAt (1-(1)))) ; };
   break;
     
 
@@ -518,7 +518,7 @@ public class RegexParser
     
 /* Line 351 of lalr1.java  */
 /* Line 173 of "RegexParser.y"  */
-    { yyval = (( CharFsa.SubAutomaton )(yystack.valueAt (3-(2)))); };
+    { yyval = (( RegexNode )(yystack.valueAt (3-(2)))); };
   break;
     
 
@@ -527,7 +527,7 @@ public class RegexParser
     
 /* Line 351 of lalr1.java  */
 /* Line 174 of "RegexParser.y"  */
-    { yyval = (( CharFsa.SubAutomaton )(yystack.valueAt (1-(1)))) ; };
+    { yyval = (( RegexNode )(yystack.valueAt (1-(1)))) ; };
   break;
     
 
@@ -1129,9 +1129,21 @@ public class RegexParser
 /* Line 927 of lalr1.java  */
 /* Line 23 of "RegexParser.y"  */
 
-  protected CharFsa _result = new CharFsa();
+  protected RegexNode _tree;
 
-  public CharFsa getAutomaton() { return _result; }
+  protected CharFsa _result;
+
+  /** Return the parse tree of the regular expression */
+  public RegexNode getTree() { return _tree; }
+
+  /** Return the Thompson automaton of the regular expression */
+  public CharFsa getAutomaton() {
+    if (_result == null && _tree != null) {
+      _result = new CharFsa();
+      _result.setStates(_tree.thompson(_result));
+    }
+    return _result;
+  }
 
   public RegexParser(String pattern) {
     this(new StringReader(pattern));
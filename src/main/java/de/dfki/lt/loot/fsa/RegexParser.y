@@ -35,9 +35,21 @@ import java.util.Set;
 %define parser_class_name "RegexParser"
 
 %code {
-  protected CharFsa _result = new CharFsa();
+  protected RegexNode _tree;
 
-  public CharFsa getAutomaton() { return _result; }
+  protected CharFsa _result;
+
+  /** Return the parse tree of the regular expression */
+  public RegexNode getTree() { return _tree; }
+
+  /** Return the Thompson automaton of the regular expression */
+  public CharFsa getAutomaton() {
+    if (_result == null && _tree != null) {
+      _result = new CharFsa();
+      _result.setStates(_tree.thompson(_result));
+    }
+    return _result;
+  }
 
   public RegexParser(String pattern) {
     this(new StringReader(pattern));
@@ -54,7 +66,7 @@ import java.util.Set;
   private int _line;
   private int _charPos;
 
-  private CharFsa.SubAutomaton _lval;
+  private RegexNode _lval;
 
   YYLexer(Reader in) {
     _in = in;
@@ -134,10 +146,10 @@ import java.util.Set;
     case '[':
       Set<Character> chars = getCharSet();
       if (chars == null) return EOF;
-      _lval = _result.newCharSetAutomaton(chars);
+      _lval = RegexNode.charSet(chars);
       return CharSet;
     }
-    _lval = _result.newCharAutomaton((char) nextChar);
+    _lval = RegexNode.character((char) nextChar);
     return Token;
   }
 
@@ -146,13 +158,13 @@ import java.util.Set;
   }
 }
 
-%token < CharFsa.SubAutomaton > Token CharSet
+%token < RegexNode > Token CharSet
 
-%type < CharFsa.SubAutomaton > start regex atom alt sregex
+%type < RegexNode > start regex atom alt sregex
 
 %%
 
-start     : regex { _result.setStates($1); }
+start     : regex { _tree = $1; }
 
 /* TODO This grammar has a problem: concatenation (which does not have an
    operator symbol) should have higher priority than alternative. In fact,
@@ -170,17 +182,17 @@ regex     : sregex  { $$ = $1 ; }
           ;
 
 sregex    : atom '*' sregex {
-              $$ = _result.concatenate(_result.kleene($1), $3);
+              $$ = RegexNode.concatenate(RegexNode.kleene($1), $3);
             }
-          | atom '*' { $$ = _result.kleene($1) ; }
-          | atom sregex  { $$ = _result.concatenate($1, $2); }
+          | atom '*' { $$ = RegexNode.kleene($1) ; }
+          | atom sregex  { $$ = RegexNode.concatenate($1, $2); }
           | atom { $$ = $1 ; }
           ;
 
 alt       : sregex '*' '|' regex {
-              $$ = _result.alternative(_result.kleene($1), $4);
+              $$ = RegexNode.alternative(RegexNode.kleene($1), $4);
             }
-| sregex '|' regex { $$ = _result.alternative($1, $3); }
+| sregex '|' regex { $$ = RegexNode.alternative($1, $3); }
           ;
 
 atom      : Token { $$ = $1 ; }
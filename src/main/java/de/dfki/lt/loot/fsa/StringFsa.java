@@ -16,8 +16,11 @@
 
 package de.dfki.lt.loot.fsa;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -30,7 +33,7 @@ import java.util.Map;
 
 import de.dfki.lt.loot.digraph.Edge;
 import de.dfki.lt.loot.fsa.algo.Determinization;
-import de.dfki.lt.loot.fsa.algo.Minimization;
+import de.dfki.lt.loot.fsa.algo.MinimizationValmari;
 
 /**
  * {@link StringFsa} extends {@link FiniteAutomaton} to be used with strings
@@ -83,13 +86,15 @@ public class StringFsa extends FiniteAutomaton<String> {
 
   /**
    * Returns a minimized version of this deterministic finite state automaton.
+   * Since string alphabets tend to be large and the automata sparse, this
+   * uses {@link MinimizationValmari}, which does not need a total automaton.
    *
    * @return a minimized deterministic finite state automaton
    */
   public StringFsa minimize() {
 
     StringFsa copy = this.copy();
-    Minimization.minimize(copy, this._comp);
+    MinimizationValmari.minimize(copy, this._comp);
 
     return copy;
   }
@@ -213,6 +218,39 @@ public class StringFsa extends FiniteAutomaton<String> {
   }
 
 
+  /**
+   * Save this automaton in the binary format of {@link FsaBinaryIO} at the
+   * given path. Much faster to read than the text format.
+   *
+   * @param binPath
+   *          the path where to write the automaton to
+   * @throws IOException if writing fails
+   */
+  public void saveAsBinary(Path binPath) throws IOException {
+
+    try (OutputStream out = Files.newOutputStream(binPath)) {
+      FsaBinaryIO.write(this, FsaBinaryIO.STRINGS, out);
+    }
+  }
+
+
+  /**
+   * Initializes this automaton from the binary format of {@link FsaBinaryIO}
+   * at the given path.
+   *
+   * @param binPath
+   *          the path from where to read the automaton
+   * @throws IOException if reading fails or the file has the wrong format
+   */
+  public void readFromBinary(Path binPath) throws IOException {
+
+    try (InputStream in =
+        new BufferedInputStream(Files.newInputStream(binPath))) {
+      FsaBinaryIO.read(in, FsaBinaryIO.STRINGS, this);
+    }
+  }
+
+
   /**
    * Get the new state for the give state using the given state map. If not
    * already available, the new state will be created.
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import gnu.trove.map.hash.TCharIntHashMap;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import de.dfki.lt.loot.digraph.Edge;
+
+/**
+ * {@link Tokenizer} splits a character stream into tokens, using one
+ * deterministic {@link CharFsa} per token type. The token id is the index of
+ * the automaton in the list given to the constructor.
+ *
+ * At every position, all automata are run in parallel and the longest match
+ * wins (leftmost-longest matching); if several automata match the same
+ * length, the one with the smallest id wins. Characters where no automaton
+ * matches a non-empty token are skipped.
+ *
+ * The input is read in chunks into a buffer that only has to hold the
+ * characters the automata look at from the current start position, so memory
+ * is bounded by the longest DFA lookahead and not by the input. Note that the
+ * lookahead can be much longer than the token, e.g., {@code a*b} reads a
+ * whole run of a's before it fails, and since scanning restarts one character
+ * after a failed position, such a run costs time quadratic in its length.
+ * To bound both, a maximal lookahead can be given to the constructor: the
+ * scan then stops after that many characters, and longer tokens are split.
+ * Tokens are reported as spans, see {@link #getStart()}, {@link #getEnd()}
+ * and {@link #getBuffer()}, no strings are created.
+ *
+ * Usage:
+ * <pre>
+ * tokenizer.reset(reader);
+ * while (tokenizer.next()) {
+ *   ... tokenizer.getTokenId(), tokenizer.getStart(), tokenizer.getEnd() ...
+ * }
+ * </pre>
+ *
+ * A tokenizer is not thread-safe, but several tokenizers may be created
+ * from the same automata.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class Tokenizer {
+
+  /** The transitions of every automaton: _trans[a][state] maps characters to
+   *  target states
+   */
+  private final TCharIntHashMap[][] _trans;
+
+  private final BitSet[] _final;
+
+  /** The initial state of every automaton, -1 for the empty automaton */
+  private final int[] _initial;
+
+  /** The current state of every automaton while scanning */
+  private final int[] _current;
+
+  private Readable _in;
+
+  private boolean _eof;
+
+  /** The input buffer, the valid characters end at _limit */
+  private char[] _buf;
+
+  /** The input position of _buf[0] */
+  private long _bufPos;
+
+  /** The buffer index where scanning continues, and the end of the valid
+   *  characters in the buffer
+   */
+  private int _scan, _limit;
+
+  /** The current token */
+  private int _tokenId, _tokenOffset, _tokenLength;
+
+  /** The maximal number of characters scanned from one start position */
+  private final int _maxLookahead;
+
+  /** Create a tokenizer for the deterministic automata in dfas, with a
+   *  default initial buffer size.
+   */
+  public Tokenizer(List<CharFsa> dfas) {
+    this(dfas, 8192);
+  }
+
+  /** Create a tokenizer for the deterministic automata in dfas, with
+   *  unlimited lookahead. The buffer grows if the lookahead is longer than
+   *  bufferSize.
+   *
+   * @throws IllegalArgumentException if one of the automata is not
+   *         deterministic
+   */
+  public Tokenizer(List<CharFsa> dfas, int bufferSize) {
+    this(dfas, bufferSize, Integer.MAX_VALUE);
+  }
+
+  /** Create a tokenizer for the deterministic automata in dfas that looks at
+   *  most maxLookahead characters ahead from every start position. This
+   *  bounds the buffer and the time per input character, but tokens longer
+   *  than maxLookahead are split.
+   *
+   * @throws IllegalArgumentException if one of the automata is not
+   *         deterministic, or maxLookahead is not positive
+   */
+  public Tokenizer(List<CharFsa> dfas, int bufferSize, int maxLookahead) {
+    if (maxLookahead <= 0) {
+      throw new IllegalArgumentException(
+          "lookahead must be positive: " + maxLookahead);
+    }
+    _maxLookahead = maxLookahead;
+    _trans = new TCharIntHashMap[dfas.size()][];
+    _final = new BitSet[dfas.size()];
+    _initial = new int[dfas.size()];
+    _current = new int[dfas.size()];
+    for (int a = 0; a < dfas.size(); ++a) {
+      compile(a, dfas.get(a));
+    }
+    _buf = new char[Math.max(bufferSize, 16)];
+  }
+
+  /** Convert automaton a into the transition tables */
+  private void compile(int a, CharFsa fsa) {
+    int[] index = new int[fsa.getNumberOfVertices()];
+    int n = 0;
+    for (int v : fsa) {
+      index[v] = n++;
+    }
+    _trans[a] = new TCharIntHashMap[n];
+    _final[a] = new BitSet(n);
+    int initial = fsa.getInitialState();
+    _initial[a] =
+        initial >= 0 && fsa.isVertex(initial) ? index[initial] : -1;
+    for (int v : fsa) {
+      TCharIntHashMap map =
+          new TCharIntHashMap(4, 0.5f, (char) 0, -1);
+      for (Edge<Character> e : fsa.getOutEdges(v)) {
+        if (fsa.isEpsilon(e.getInfo())
+            || map.put(e.getInfo(), index[e.getTarget()]) != -1) {
+          throw new IllegalArgumentException(
+              "automaton " + a + " is not deterministic");
+        }
+      }
+      _trans[a][index[v]] = map;
+      if (fsa.isFinalState(v)) {
+        _final[a].set(index[v]);
+      }
+    }
+  }
+
+  /** Start tokenizing the input from in, which may be a
+   *  {@link java.io.Reader} or a {@link CharBuffer}, use
+   *  {@link CharBuffer#wrap(CharSequence)} for strings. It is not closed.
+   */
+  public void reset(Readable in) {
+    _in = in;
+    _eof = false;
+    _bufPos = 0;
+    _scan = _limit = 0;
+    _tokenId = -1;
+    _tokenOffset = _tokenLength = 0;
+  }
+
+  /** Read more input into the buffer, dropping the characters before the
+   *  scan position and growing the buffer if it is full.
+   *
+   * @return false if the end of input was reached
+   */
+  private boolean fill() throws IOException {
+    if (_eof) return false;
+    if (_scan > 0) {
+      System.arraycopy(_buf, _scan, _buf, 0, _limit - _scan);
+      _bufPos += _scan;
+      _limit -= _scan;
+      _scan = 0;
+    }
+    if (_limit == _buf.length) {
+      _buf = Arrays.copyOf(_buf, 2 * _buf.length);
+    }
+    int read;
+    do {
+      read = _in.read(CharBuffer.wrap(_buf, _limit, _buf.length - _limit));
+    } while (read == 0);
+    if (read < 0) {
+      _eof = true;
+      return false;
+    }
+    _limit += read;
+    return true;
+  }
+
+  /** Advance to the next token.
+   *
+   * @return false if there are no more tokens in the input
+   */
+  public boolean next() throws IOException {
+    while (true) {
+      if (_scan == _limit && ! fill()) {
+        _tokenId = -1;
+        return false;
+      }
+      int alive = 0;
+      for (int a = 0; a < _initial.length; ++a) {
+        _current[a] = _initial[a];
+        if (_initial[a] >= 0) ++alive;
+      }
+      int bestId = -1, bestLength = 0;
+      int length = 0;
+      while (alive > 0 && length < _maxLookahead) {
+        if (_scan + length == _limit && ! fill()) break;
+        char c = _buf[_scan + length];
+        ++length;
+        for (int a = 0; a < _current.length; ++a) {
+          int state = _current[a];
+          if (state < 0) continue;
+          state = _trans[a][state].get(c);
+          _current[a] = state;
+          if (state < 0) {
+            --alive;
+          } else if (length > bestLength && _final[a].get(state)) {
+            bestId = a;
+            bestLength = length;
+          }
+        }
+      }
+      if (bestId >= 0) {
+        _tokenId = bestId;
+        _tokenOffset = _scan;
+        _tokenLength = bestLength;
+        _scan += bestLength;
+        return true;
+      }
+      // no token starts here
+      ++_scan;
+    }
+  }
+
+  /** Return the id of the current token, which is the index of the automaton
+   *  that matched it, or -1 if there is no current token.
+   */
+  public int getTokenId() {
+    return _tokenId;
+  }
+
+  /** Return the input position of the first character of the current token */
+  public long getStart() {
+    return _bufPos + _tokenOffset;
+  }
+
+  /** Return the input position after the last character of the current
+   *  token
+   */
+  public long getEnd() {
+    return _bufPos + _tokenOffset + _tokenLength;
+  }
+
+  public int getLength() {
+    return _tokenLength;
+  }
+
+  /** Return the internal buffer, which contains the current token at
+   *  {@link #getOffset()}. The content is only valid until the next call of
+   *  {@link #next()}.
+   */
+  public char[] getBuffer() {
+    return _buf;
+  }
+
+  /** Return the offset of the current token in {@link #getBuffer()} */
+  public int getOffset() {
+    return _tokenOffset;
+  }
+
+  /** Return a view of the current token, which is only valid until the next
+   *  call of {@link #next()}.
+   */
+  public CharSequence getToken() {
+    return CharBuffer.wrap(_buf, _tokenOffset, _tokenLength);
+  }
+}
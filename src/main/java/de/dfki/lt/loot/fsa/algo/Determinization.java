@@ -29,6 +29,7 @@ import java.util.Queue;
 
 import de.dfki.lt.loot.digraph.Edge;
 import de.dfki.lt.loot.fsa.AbstractAutomaton;
+import de.dfki.lt.loot.fsa.FiniteAutomaton;
 
 public class Determinization {
 
@@ -40,7 +41,7 @@ public class Determinization {
    * a <code>Set<Vertex<Integer, Character>></code>
    * with states of the non-deterministic automaton
    */
-  private static <EdgeInfo> void expandWithEpsilonClosure(
+  static <EdgeInfo> void expandWithEpsilonClosure(
     AbstractAutomaton<EdgeInfo> graph,
     TIntHashSet nfaStateSet) {
 
@@ -122,7 +123,7 @@ public class Determinization {
    * @return a <code>boolean</code> that is <code>true</code> if any final state
    * is found
    */
-  private static <EdgeInfo> boolean isFinal(
+  static <EdgeInfo> boolean isFinal(
       final AbstractAutomaton<EdgeInfo> graph,
     TIntHashSet nfaStateSet) {
 
@@ -144,6 +145,8 @@ public class Determinization {
    * This initializes the queue of unmarked DFA states, represented by sets of
    * NFA states.
    *
+   * @param initialStates the states of the NFA that form the initial state of
+   * the DFA, together with their epsilon closure
    * @param nfa2dfaStates a <code>Map</code> that maps NFA state sets to a
    * single state of the DFA
    * @param detAutomaton a <code>FinateAutomaton</code> with the deterministic
@@ -153,16 +156,17 @@ public class Determinization {
    */
   private static <EdgeInfo> Queue<TIntHashSet> initUnmarkedStates(
       AbstractAutomaton<EdgeInfo> nonDetAutomaton,
+      int[] initialStates,
       Map<TIntHashSet, Integer> nfa2dfaStates,
       AbstractAutomaton<EdgeInfo> detAutomaton) {
 
     // init
     Queue<TIntHashSet> unmarkedStates = new LinkedList<TIntHashSet>();
 
-    // get epsilon closure of initial NFA state; this corresponds to the initial
-    // state of the DFA
+    // get epsilon closure of initial NFA states; this corresponds to the
+    // initial state of the DFA
     TIntHashSet initialEpsClosure = new TIntHashSet();
-    initialEpsClosure.add(nonDetAutomaton.getInitialState());
+    initialEpsClosure.addAll(initialStates);
     expandWithEpsilonClosure(nonDetAutomaton, initialEpsClosure);
 
     // take the initial DFA state and map it to the epsilon closure of the
@@ -195,6 +199,28 @@ public class Determinization {
     AbstractAutomaton<EdgeInfo> nonDetAutomaton,
     Comparator<EdgeInfo> comp,
     AbstractAutomaton<EdgeInfo> detAutomaton) {
+    determinize(nonDetAutomaton,
+        new int[]{ nonDetAutomaton.getInitialState() }, comp, detAutomaton);
+  }
+
+  /**
+   * This computes a deterministic automaton that accepts the language of
+   * this non-deterministic automaton when started in any of the given
+   * initial states into detAutomaton. The initial state of nonDetAutomaton is
+   * ignored.
+   *
+   * @param initialStates the initial states of the non-deterministic automaton
+   * @param detAutomaton the resulting deterministic automaton. Must be a fresh
+   *           automaton and is passed as parameter to make it possible to use
+   *           this method for subclasses.
+   * @return the map from the (epsilon-closed) sets of states of the
+   *           non-deterministic automaton to the states of detAutomaton
+   */
+  public static <EdgeInfo> Map<TIntHashSet, Integer> determinize(
+    AbstractAutomaton<EdgeInfo> nonDetAutomaton,
+    int[] initialStates,
+    Comparator<EdgeInfo> comp,
+    AbstractAutomaton<EdgeInfo> detAutomaton) {
     // detAutomaton will contain the result DFA
 
     // this maps NFA state sets to a single state of the DFA
@@ -204,7 +230,8 @@ public class Determinization {
     // this contains the set of unmarked DFA states, represented by the
     // corresponding NFA state sets
     Queue<TIntHashSet> unmarkedStates
-      = initUnmarkedStates(nonDetAutomaton, nfa2dfaStates, detAutomaton);
+      = initUnmarkedStates(nonDetAutomaton, initialStates, nfa2dfaStates,
+          detAutomaton);
 
     // is there still a new DFA state we have to handle?
     while (! unmarkedStates.isEmpty()) {
@@ -254,8 +281,17 @@ public class Determinization {
         detAutomaton.newEdge(oneChar, dfaState, transDfaState);
       }
     }
+    return nfa2dfaStates;
   }
 
-
-
+  /** Return fsa if it is deterministic, a determinized copy otherwise */
+  static <EdgeInfo> AbstractAutomaton<EdgeInfo> deterministic(
+      AbstractAutomaton<EdgeInfo> fsa, Comparator<EdgeInfo> comp) {
+    if (Minimization.isDeterministic(fsa, comp)) {
+      return fsa;
+    }
+    FiniteAutomaton<EdgeInfo> det = new FiniteAutomaton<EdgeInfo>();
+    determinize(fsa, comp, det);
+    return det;
+  }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa.algo;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.hash.TIntHashSet;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import de.dfki.lt.loot.digraph.DiGraph;
+import de.dfki.lt.loot.digraph.Edge;
+import de.dfki.lt.loot.digraph.algo.TarjanVisitor;
+import de.dfki.lt.loot.fsa.AbstractAutomaton;
+
+/** Transform an automaton into an equivalent one without epsilon edges.
+ *
+ *  The epsilon closures of all states are computed once: the strongly
+ *  connected components of the subgraph of epsilon edges all have the same
+ *  closure, and {@link TarjanVisitor} returns them in reverse topological
+ *  order, so the closure of a component is the union of its members and the
+ *  closures of its (already computed) epsilon successors.
+ *
+ *  A state p of the result gets an edge (p, a, r) for every non-epsilon edge
+ *  (q, a, r) of a state q in the closure of p, and is final if its closure
+ *  contains a final state. Only states reachable from the initial state are
+ *  kept, which removes most of the auxiliary states of the Thompson
+ *  constructions in {@link de.dfki.lt.loot.fsa.FiniteAutomaton}.
+ */
+public class EpsilonRemoval {
+
+  /** Return the epsilon closure of every vertex of fsa, as sorted array of
+   *  vertices, null for vertices that do not exist.
+   */
+  public static <EdgeInfo> int[][] epsilonClosures(
+      AbstractAutomaton<EdgeInfo> fsa) {
+    final int noVertices = fsa.getNumberOfVertices();
+    DiGraph<EdgeInfo> epsGraph = new DiGraph<EdgeInfo>(noVertices);
+    for (int v = 0; v < noVertices; ++v) {
+      if (! fsa.isVertex(v)) {
+        epsGraph.removeVertexLazy(v);
+        continue;
+      }
+      for (Edge<EdgeInfo> e : fsa.getOutEdges(v)) {
+        if (fsa.isEpsilon(e.getInfo())) {
+          epsGraph.newEdge(e.getInfo(), v, e.getTarget());
+        }
+      }
+    }
+    TarjanVisitor<EdgeInfo> visitor = new TarjanVisitor<EdgeInfo>();
+    epsGraph.dfs(visitor);
+
+    int[][] closures = new int[noVertices][];
+    TIntHashSet closure = new TIntHashSet();
+    for (List<Integer> component : visitor.getSCCs()) {
+      closure.clear();
+      for (int v : component) {
+        closure.add(v);
+        for (Edge<EdgeInfo> e : epsGraph.getOutEdges(v)) {
+          // successors in other components are finished already
+          int[] succ = closures[e.getTarget()];
+          if (succ != null) closure.addAll(succ);
+        }
+      }
+      int[] result = closure.toArray();
+      Arrays.sort(result);
+      for (int v : component) {
+        closures[v] = result;
+      }
+    }
+    return closures;
+  }
+
+  /** Compute an automaton without epsilon edges that accepts the same
+   *  language as fsa into result.
+   *
+   * @param result the resulting automaton. Must be a fresh automaton and is
+   *           passed as parameter to make it possible to use this method for
+   *           subclasses.
+   */
+  public static <EdgeInfo> void removeEpsilons(
+      AbstractAutomaton<EdgeInfo> fsa, Comparator<EdgeInfo> comp,
+      AbstractAutomaton<EdgeInfo> result) {
+    int[][] closures = epsilonClosures(fsa);
+    int[] newState = new int[fsa.getNumberOfVertices()];
+    Arrays.fill(newState, -1);
+    TIntArrayList active = new TIntArrayList();
+
+    int initial = fsa.getInitialState();
+    newState[initial] = result.newVertex();
+    result.setInitialState(newState[initial]);
+    active.add(initial);
+    // the targets for every label of the current state, to avoid duplicates
+    Map<EdgeInfo, TIntHashSet> targets = new TreeMap<EdgeInfo, TIntHashSet>(comp);
+    for (int i = 0; i < active.size(); ++i) {
+      int p = active.get(i);
+      targets.clear();
+      for (int q : closures[p]) {
+        if (fsa.isFinalState(q)) {
+          result.setFinalState(newState[p]);
+        }
+        for (Edge<EdgeInfo> e : fsa.getOutEdges(q)) {
+          EdgeInfo info = e.getInfo();
+          if (fsa.isEpsilon(info)) continue;
+          TIntHashSet known = targets.get(info);
+          if (known == null) {
+            known = new TIntHashSet();
+            targets.put(info, known);
+          }
+          int r = e.getTarget();
+          if (! known.add(r)) continue;
+          if (newState[r] < 0) {
+            newState[r] = result.newVertex();
+            active.add(r);
+          }
+          result.newEdge(info, newState[p], newState[r]);
+        }
+      }
+    }
+  }
+}
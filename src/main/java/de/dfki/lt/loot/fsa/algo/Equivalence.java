@@ -0,0 +1,211 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa.algo;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.hash.TLongHashSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import de.dfki.lt.loot.digraph.Edge;
+import de.dfki.lt.loot.fsa.AbstractAutomaton;
+import de.dfki.lt.loot.jada.Partition;
+
+/** Equivalence and inclusion tests for automata, which explore the product
+ *  of the two (determinized) automata breadth first and stop at the first
+ *  pair of states that differs, so the returned counterexample is a shortest
+ *  one. Non-deterministic automata are determinized lazily during the walk,
+ *  see {@link LazyDeterminization}, so an early counterexample does not pay
+ *  for two complete subset constructions.
+ *
+ *  The equivalence test uses the union-find algorithm of Hopcroft and Karp,
+ *  which merges the states of a pair instead of storing the pair, so it
+ *  visits at most n1 + n2 pairs.
+ *
+ *  Reference: Hopcroft, Karp "A linear algorithm for testing equivalence of
+ *  finite automata" ('71)
+ */
+public class Equivalence {
+
+  /** Return the target of the transition from state with label info, or
+   *  sink if there is none. The sink has no out edges.
+   */
+  static <EdgeInfo> int next(AbstractAutomaton<EdgeInfo> fsa,
+      int state, EdgeInfo info, Comparator<EdgeInfo> comp, int sink) {
+    if (state == sink) return sink;
+    Edge<EdgeInfo> e = fsa.findEdge(state, info, comp);
+    return (e == null) ? sink : e.getTarget();
+  }
+
+  /** The visited pairs of the product automaton in breadth first order,
+   *  with a back pointer and label to reconstruct the path to them.
+   */
+  private static class Pairs<EdgeInfo> {
+    TIntArrayList first = new TIntArrayList();
+    TIntArrayList second = new TIntArrayList();
+    TIntArrayList parent = new TIntArrayList();
+    List<EdgeInfo> label = new ArrayList<EdgeInfo>();
+
+    void add(int p, int q, int from, EdgeInfo info) {
+      first.add(p);
+      second.add(q);
+      parent.add(from);
+      label.add(info);
+    }
+
+    /** Return the labels on the path to pair i */
+    List<EdgeInfo> path(int i) {
+      List<EdgeInfo> result = new ArrayList<EdgeInfo>();
+      for (; parent.get(i) >= 0; i = parent.get(i)) {
+        result.add(label.get(i));
+      }
+      Collections.reverse(result);
+      return result;
+    }
+  }
+
+  /** Return the partition element of state, adding one if it is new */
+  private static int element(int state, TIntIntHashMap elements,
+      Partition merged) {
+    int elt = elements.get(state);
+    if (elt < 0) {
+      elt = merged.addElement();
+      elements.put(state, elt);
+    }
+    return elt;
+  }
+
+  /** Return a fresh map from states, including the sink, to elements */
+  private static TIntIntHashMap newElementMap() {
+    return new TIntIntHashMap(Constants.DEFAULT_CAPACITY,
+        Constants.DEFAULT_LOAD_FACTOR, Integer.MIN_VALUE, -1);
+  }
+
+  /** Return a shortest word that is accepted by exactly one of the two
+   *  automata, or null if they are equivalent. Non-deterministic automata
+   *  are determinized on the fly, only as far as the walk gets.
+   */
+  public static <EdgeInfo> List<EdgeInfo> findCounterexample(
+      AbstractAutomaton<EdgeInfo> fsa1, AbstractAutomaton<EdgeInfo> fsa2,
+      Comparator<EdgeInfo> comp) {
+    LazyDeterminization<EdgeInfo> a =
+        new LazyDeterminization<EdgeInfo>(fsa1, comp);
+    LazyDeterminization<EdgeInfo> b =
+        new LazyDeterminization<EdgeInfo>(fsa2, comp);
+    final int sink = LazyDeterminization.SINK;
+    // the states of a and b get their partition elements when reached
+    Partition merged = new Partition(0);
+    TIntIntHashMap elementsA = newElementMap();
+    TIntIntHashMap elementsB = newElementMap();
+
+    Pairs<EdgeInfo> pairs = new Pairs<EdgeInfo>();
+    pairs.add(a.getInitialState(), b.getInitialState(), -1, null);
+    merged.union(element(a.getInitialState(), elementsA, merged),
+        element(b.getInitialState(), elementsB, merged));
+    for (int i = 0; i < pairs.first.size(); ++i) {
+      int p = pairs.first.get(i);
+      int q = pairs.second.get(i);
+      if (a.isFinalState(p) != b.isFinalState(q)) {
+        return pairs.path(i);
+      }
+      for (int t = 0; t < a.getNumberOfTransitions(p); ++t) {
+        EdgeInfo info = a.getLabel(p, t);
+        int p1 = a.getTarget(p, t);
+        int q1 = b.next(q, info);
+        int e1 = element(p1, elementsA, merged);
+        int e2 = element(q1, elementsB, merged);
+        if (! merged.equiv(e1, e2)) {
+          merged.union(e1, e2);
+          pairs.add(p1, q1, i, info);
+        }
+      }
+      for (int t = 0; t < b.getNumberOfTransitions(q); ++t) {
+        EdgeInfo info = b.getLabel(q, t);
+        // transitions that exist in both were handled above
+        if (a.next(p, info) != sink) continue;
+        int q1 = b.getTarget(q, t);
+        int e1 = element(sink, elementsA, merged);
+        int e2 = element(q1, elementsB, merged);
+        if (! merged.equiv(e1, e2)) {
+          merged.union(e1, e2);
+          pairs.add(sink, q1, i, info);
+        }
+      }
+    }
+    return null;
+  }
+
+  /** Return a shortest word that is accepted by fsa1, but not by fsa2, or
+   *  null if the language of fsa1 is a subset of the language of fsa2.
+   *  Non-deterministic automata are determinized on the fly, only as far as
+   *  the walk gets.
+   */
+  public static <EdgeInfo> List<EdgeInfo> findInclusionCounterexample(
+      AbstractAutomaton<EdgeInfo> fsa1, AbstractAutomaton<EdgeInfo> fsa2,
+      Comparator<EdgeInfo> comp) {
+    LazyDeterminization<EdgeInfo> a =
+        new LazyDeterminization<EdgeInfo>(fsa1, comp);
+    LazyDeterminization<EdgeInfo> b =
+        new LazyDeterminization<EdgeInfo>(fsa2, comp);
+
+    // inclusion is not symmetric, so the pairs themselves are stored
+    TLongHashSet visited = new TLongHashSet();
+    Pairs<EdgeInfo> pairs = new Pairs<EdgeInfo>();
+    pairs.add(a.getInitialState(), b.getInitialState(), -1, null);
+    visited.add(key(a.getInitialState(), b.getInitialState()));
+    for (int i = 0; i < pairs.first.size(); ++i) {
+      int p = pairs.first.get(i);
+      int q = pairs.second.get(i);
+      if (a.isFinalState(p) && ! b.isFinalState(q)) {
+        return pairs.path(i);
+      }
+      for (int t = 0; t < a.getNumberOfTransitions(p); ++t) {
+        EdgeInfo info = a.getLabel(p, t);
+        int p1 = a.getTarget(p, t);
+        int q1 = b.next(q, info);
+        if (visited.add(key(p1, q1))) {
+          pairs.add(p1, q1, i, info);
+        }
+      }
+    }
+    return null;
+  }
+
+  /** Pack the pair (p, q), where q may be the sink, into a long */
+  private static long key(int p, int q) {
+    return ((long) p << 32) | (q & 0xffffffffL);
+  }
+
+  /** Return true if the two automata accept the same language */
+  public static <EdgeInfo> boolean isEquivalent(
+      AbstractAutomaton<EdgeInfo> fsa1, AbstractAutomaton<EdgeInfo> fsa2,
+      Comparator<EdgeInfo> comp) {
+    return findCounterexample(fsa1, fsa2, comp) == null;
+  }
+
+  /** Return true if the language of fsa1 is a subset of that of fsa2 */
+  public static <EdgeInfo> boolean isSubset(
+      AbstractAutomaton<EdgeInfo> fsa1, AbstractAutomaton<EdgeInfo> fsa2,
+      Comparator<EdgeInfo> comp) {
+    return findInclusionCounterexample(fsa1, fsa2, comp) == null;
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa.algo;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import de.dfki.lt.loot.digraph.Edge;
+import de.dfki.lt.loot.fsa.AbstractAutomaton;
+
+/** A deterministic view of an automaton whose transitions are only computed
+ *  when a state is visited. A deterministic automaton is used as it is, and
+ *  the states of the view are its vertices. For a non-deterministic one, the
+ *  epsilon-closed sets of states of the subset construction are created
+ *  when they are first reached and numbered densely from zero, so a walk that
+ *  stops early does not pay for the complete determinization.
+ *
+ *  The transitions of every visited state are sorted by label. The state
+ *  {@link #SINK} stands for a missing transition, it is not final and has no
+ *  transitions.
+ */
+class LazyDeterminization<EdgeInfo> {
+
+  static final int SINK = -1;
+
+  /** The sorted transitions of a state */
+  private static class Transitions<EdgeInfo> {
+    List<EdgeInfo> labels = new ArrayList<EdgeInfo>();
+    TIntArrayList targets = new TIntArrayList();
+  }
+
+  private final AbstractAutomaton<EdgeInfo> fsa;
+
+  private final Comparator<EdgeInfo> comp;
+
+  /** The sets of states of a non-deterministic fsa, null if fsa is
+   *  deterministic, and their numbers
+   */
+  private final List<TIntHashSet> subsets;
+  private final Map<TIntHashSet, Integer> ids;
+
+  /** The transitions of the states visited so far */
+  private final TIntObjectHashMap<Transitions<EdgeInfo>> transitions =
+      new TIntObjectHashMap<Transitions<EdgeInfo>>();
+
+  private final int initial;
+
+  LazyDeterminization(AbstractAutomaton<EdgeInfo> fsa,
+      Comparator<EdgeInfo> comp) {
+    this.fsa = fsa;
+    this.comp = comp;
+    int start = fsa.getInitialState();
+    if (Minimization.isDeterministic(fsa, comp)) {
+      subsets = null;
+      ids = null;
+      initial = start < 0 ? SINK : start;
+    } else {
+      subsets = new ArrayList<TIntHashSet>();
+      ids = new HashMap<TIntHashSet, Integer>();
+      if (start < 0) {
+        initial = SINK;
+      } else {
+        TIntHashSet closure = new TIntHashSet();
+        closure.add(start);
+        initial = getState(closure);
+      }
+    }
+  }
+
+  /** Return the state for the set of states, which is epsilon-closed here,
+   *  adding it if it is new.
+   */
+  private int getState(TIntHashSet states) {
+    Determinization.expandWithEpsilonClosure(fsa, states);
+    Integer id = ids.get(states);
+    if (id == null) {
+      id = subsets.size();
+      subsets.add(states);
+      ids.put(states, id);
+    }
+    return id;
+  }
+
+  int getInitialState() {
+    return initial;
+  }
+
+  boolean isFinalState(int state) {
+    if (state == SINK) return false;
+    return subsets == null
+        ? fsa.isFinalState(state)
+        : Determinization.isFinal(fsa, subsets.get(state));
+  }
+
+  /** Return the transitions of state, computing them if necessary */
+  private Transitions<EdgeInfo> expand(int state) {
+    Transitions<EdgeInfo> result = transitions.get(state);
+    if (result != null) return result;
+    result = new Transitions<EdgeInfo>();
+    if (subsets == null) {
+      List<Edge<EdgeInfo>> edges = new ArrayList<Edge<EdgeInfo>>();
+      for (Edge<EdgeInfo> e : fsa.getOutEdges(state)) {
+        edges.add(e);
+      }
+      Collections.sort(edges, new Comparator<Edge<EdgeInfo>>() {
+        @Override
+        public int compare(Edge<EdgeInfo> e1, Edge<EdgeInfo> e2) {
+          return comp.compare(e1.getInfo(), e2.getInfo());
+        }
+      });
+      for (Edge<EdgeInfo> e : edges) {
+        result.labels.add(e.getInfo());
+        result.targets.add(e.getTarget());
+      }
+    } else {
+      // one step of the subset construction
+      TreeMap<EdgeInfo, TIntHashSet> moves =
+          new TreeMap<EdgeInfo, TIntHashSet>(comp);
+      for (int v : subsets.get(state).toArray()) {
+        for (Edge<EdgeInfo> e : fsa.getOutEdges(v)) {
+          if (fsa.isEpsilon(e.getInfo())) continue;
+          TIntHashSet targets = moves.get(e.getInfo());
+          if (targets == null) {
+            targets = new TIntHashSet();
+            moves.put(e.getInfo(), targets);
+          }
+          targets.add(e.getTarget());
+        }
+      }
+      for (Map.Entry<EdgeInfo, TIntHashSet> move : moves.entrySet()) {
+        result.labels.add(move.getKey());
+        result.targets.add(getState(move.getValue()));
+      }
+    }
+    transitions.put(state, result);
+    return result;
+  }
+
+  /** Return the number of transitions of state */
+  int getNumberOfTransitions(int state) {
+    return state == SINK ? 0 : expand(state).labels.size();
+  }
+
+  /** Return the label of the i-th transition of state */
+  EdgeInfo getLabel(int state, int i) {
+    return expand(state).labels.get(i);
+  }
+
+  /** Return the target of the i-th transition of state */
+  int getTarget(int state, int i) {
+    return expand(state).targets.get(i);
+  }
+
+  /** Return the target of the transition from state with label info, or
+   *  {@link #SINK} if there is none
+   */
+  int next(int state, EdgeInfo info) {
+    if (state == SINK) return SINK;
+    Transitions<EdgeInfo> t = expand(state);
+    int pos = Collections.binarySearch(t.labels, info, comp);
+    return pos < 0 ? SINK : t.targets.get(pos);
+  }
+}
@@ -16,21 +16,26 @@
 
 package de.dfki.lt.loot.fsa.algo;
 
-import java.util.ArrayList;
-import java.util.BitSet;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntObjectHashMap;
+
 import java.util.Comparator;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.SortedSet;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.TreeSet;
 
 import de.dfki.lt.loot.digraph.Edge;
 import de.dfki.lt.loot.fsa.AbstractAutomaton;
-import de.dfki.lt.loot.digraph.Graph;
 
 public class Minimization {
 
+  /** Non-deterministic automata with at most this number of states are
+   *  minimized with Brzozowski's algorithm by {@link #minimize(
+   *  AbstractAutomaton, Comparator, AbstractAutomaton)}, bigger ones are
+   *  determinized and minimized with Hopcroft's algorithm.
+   */
+  public static final int BRZOZOWSKI_MAX_STATES = 256;
+
   static <EdgeInfo> void reduceAutomaton(AbstractAutomaton<EdgeInfo> fsa,
     int[] representative, Comparator<EdgeInfo> comp) {
     // the new initial state is the representative of the equivalence class to
@@ -66,6 +71,22 @@ public class Minimization {
     fsa.cleanupEdges();
   }
 
+  /** Return a map from the alphabet symbols of graph to dense indices, in
+   *  the order given by comp.
+   */
+  static <EdgeInfo> Map<EdgeInfo, Integer> alphabetIndex(
+      AbstractAutomaton<EdgeInfo> graph, Comparator<EdgeInfo> comp) {
+    Map<EdgeInfo, Integer> result = new TreeMap<EdgeInfo, Integer>(comp);
+    for (EdgeInfo c : graph.getAlphabet()) {
+      result.put(c, 0);
+    }
+    int i = 0;
+    for (Map.Entry<EdgeInfo, Integer> entry : result.entrySet()) {
+      entry.setValue(i++);
+    }
+    return result;
+  }
+
   /** Translate this automaton into an automaton with the minimal possible
    *  number of states.
    *
@@ -74,7 +95,7 @@ public class Minimization {
    *            automaton" ('71)
    *  Gries "Describing an algorithm by Hopcroft" ('73)
    *  Watson "A taxonomy of finite automata minimization algorithms" ('93)
-   *  Naming of the variables etc. follows the Watson paper, Algorithm 4.8
+   *  Knuutila "Re-describing an algorithm by Hopcroft" ('01)
    *
    * The algorithm in pseudo code:
 
@@ -95,178 +116,219 @@ public class Minimization {
 How to find out if p is splittable by W, a:
   Find s, t from p where delta(p,a) in W and delta(q, a) not in W
 
+   *  The partition is a {@link RefinablePartition}, which always gives the
+   *  smaller half of a split block a new number. Since (P, b) in Wait
+   *  implies that P keeps its number, lines 10-13 reduce to adding
+   *  (P'', b) for the new block P'', and Wait can be a plain stack of
+   *  (block, symbol) pairs.
+   *
+   *  The automaton is completed by a virtual fail state, which only exists in
+   *  the inverse transition index. This index is grouped by symbol and
+   *  target state, so the predecessors of a splitter (W, a) are found in
+   *  time linear in their number, which gives O(n |Alphabet| log n) overall.
    */
   public static <EdgeInfo> void minimize(
     AbstractAutomaton<EdgeInfo> graph, Comparator<EdgeInfo> comp) {
-    // the result is a partition of the vertices, and we need two efficient
-    // views for these subsets:
-    // a) is state v in set p : use the classNo
-    // b) iterate over the elements of p : use P[classNo]
-    // and since the split operations are working destructively on the
-    // lists in P, elements of P are changed automatically in the right way
-
-    final int noStates = graph.getNumberOfVertices();
-    // view a) the classNo is the ID of the partition a vertex is in. The
-    // classNo[noStates] takes care of the fail state for non-total FSAs
-    int[] classNo = new int[noStates + 1] ;
+    minimize(graph, comp, (int[]) null);
+  }
 
-    // view b) List no. i contains all the vertices of partition set i
-    ArrayList<List<Integer>> Partition = new ArrayList<List<Integer>>();
+  /** Minimize graph like {@link #minimize(AbstractAutomaton, Comparator)},
+   *  but never merge two states with different stateClass values. This allows
+   *  to keep annotations of the states, e.g., which patterns they accept: the
+   *  surviving state of every merged block is its smallest vertex.
+   *
+   * @param stateClass the class of every vertex, or null if only final and
+   *           non-final states have to be distinguished
+   */
+  public static <EdgeInfo> void minimize(
+    AbstractAutomaton<EdgeInfo> graph, Comparator<EdgeInfo> comp,
+    int[] stateClass) {
 
-    // all Q sets are represented by their classNo in L
-    @SuppressWarnings("unchecked")
-    SortedSet<EdgeInfo>[] Wait = new SortedSet[noStates + 2];
-    // Set<Pair<Integer, EdgeInfo>> L = new HashSet<Pair<Integer, EdgeInfo>>();
+    final int noVertices = graph.getNumberOfVertices();
+    // dense numbering of the active vertices, the fail state gets number n
+    int[] index = new int[noVertices];
+    TIntArrayList vertexOf = new TIntArrayList(noVertices);
+    for (int v = 0; v < noVertices; ++v) {
+      if (graph.isVertex(v)) {
+        index[v] = vertexOf.size();
+        vertexOf.add(v);
+      } else {
+        index[v] = -1;
+      }
+    }
+    final int n = vertexOf.size();
+    final int fail = n;
+    final int states = n + 1;
 
-    int addToL = 0;
-    {
-      // Pseudocode line 1
-      List<Integer> finalStates = new LinkedList<Integer>();
-      List<Integer> nonFinalStates = new LinkedList<Integer>();
+    Map<EdgeInfo, Integer> symbols = alphabetIndex(graph, comp);
+    final int k = symbols.size();
 
-      for(int v = 0; v < classNo.length; ++v) {
-        if (graph.isVertex(v)) {
-          if (graph.isFinalState(v)) {
-            finalStates.add(v);
-            classNo[v] = 0;
-          } else {
-            nonFinalStates.add(v);
-            classNo[v] = 1;
-          }
-        }
+    // the inverse transition index: the sources of all a-transitions into t
+    // are in inverse[inverseStart[a * states + t] .. inverseStart[a*states+t+1]]
+    int[] inverseStart = new int[k * states + 1];
+    int[] delta = new int[k];
+    for (int i = 0; i <= n; ++i) {
+      fillDelta(graph, symbols, index, i < n ? vertexOf.get(i) : -1, fail,
+          delta);
+      for (int a = 0; a < k; ++a) {
+        ++inverseStart[a * states + delta[a] + 1];
       }
-      List<Integer> dead = new LinkedList<Integer>();
-      dead.add(noStates); // the fail state
-      classNo[noStates] = 2;
-
-      Partition.add(finalStates);    // final states
-      Partition.add(nonFinalStates); // nonfinal states
-      Partition.add(dead);
-      if (finalStates.size() > nonFinalStates.size()) {
-        addToL = 1;
+    }
+    for (int i = 1; i < inverseStart.length; ++i) {
+      inverseStart[i] += inverseStart[i - 1];
+    }
+    int[] inverse = new int[k * states];
+    int[] fill = new int[k * states];
+    for (int i = 0; i <= n; ++i) {
+      fillDelta(graph, symbols, index, i < n ? vertexOf.get(i) : -1, fail,
+          delta);
+      for (int a = 0; a < k; ++a) {
+        int slot = a * states + delta[a];
+        inverse[inverseStart[slot] + fill[slot]++] = i;
       }
     }
+    fill = null;
 
-    // Pseudocode lines 2-3, Wait takes the role of W.
-    int firstInWait = addToL, lastInWait = 2;
-    Wait[addToL] = new TreeSet<EdgeInfo>(comp);
-    Wait[2] = new TreeSet<EdgeInfo>(comp);
-    for (EdgeInfo c : graph.getAlphabet()) {
-      Wait[2].add(c);
-      Wait[addToL].add(c);
+    // Pseudocode line 1: the initial partition, one block per class and
+    // finality. The fail state is in the class of non-final states.
+    RefinablePartition blocks = new RefinablePartition(states);
+    TIntObjectHashMap<TIntArrayList> classes =
+        new TIntObjectHashMap<TIntArrayList>();
+    for (int i = 0; i < n; ++i) {
+      int v = vertexOf.get(i);
+      int key = ((stateClass == null ? 0 : stateClass[v]) << 1)
+          | (graph.isFinalState(v) ? 1 : 0);
+      if (key == 0) continue;
+      TIntArrayList members = classes.get(key);
+      if (members == null) {
+        members = new TIntArrayList();
+        classes.put(key, members);
+      }
+      members.add(i);
     }
-
-    Graph<EdgeInfo> converseGraph = graph.converseLazy();
-    BitSet D = new BitSet();
-    do {
-      // get next from Wait:
-      while (firstInWait <= lastInWait &&
-          (Wait[firstInWait] == null || Wait[firstInWait].isEmpty()))
-        ++firstInWait;
-      if (firstInWait > lastInWait) break;
-      int WclassNo = firstInWait;
-      List<Integer> W = Partition.get(WclassNo);
-      EdgeInfo a = Wait[firstInWait].first();
-      Wait[firstInWait].remove(a);
-
-      // the only states Q that might be splittable according to `a' are those
-      // where q \in Q and p \in delta^-1(Q1, a)
-      D.clear();
-      for (int wstate : W) {
-        if (wstate == noStates)
-          // What are the in edges of the dead state? The missing outedges
-          // of other vertices
-          for (int v = 0; v < noStates; ++v) {
-            if (graph.isVertex(v) && graph.findEdge(v, a, comp) == null)
-              D.set(classNo[v]);
-          }
-        else
-          // the outedges of convGraph are the inEdges of graph
-          for (Edge<EdgeInfo> inEdge : converseGraph.getOutEdges(wstate)) {
-            if (comp.compare(inEdge.getInfo(), a) == 0) {
-              // since it's a lazy converse, it uses the edges of graph!
-              D.set(classNo[inEdge.getSource()]);
-            }
-          }
+    for (TIntArrayList members : classes.valueCollection()) {
+      for (int j = 0; j < members.size(); ++j) {
+        blocks.mark(members.getQuick(j));
       }
-      // D now contains the list of possibly splittable P in Part
-
-      int oldPsize = Partition.size();
-
-      // Check if really splittable and do so eventually
-      for (int pclassNo = D.nextSetBit(0); pclassNo >= 0;
-           pclassNo = D.nextSetBit(pclassNo + 1)) {
+      blocks.split();
+    }
 
-        List<Integer> P = Partition.get(pclassNo);
-        List<Integer> PPrime = new LinkedList<Integer>();
-        // now split P :
-        // move all with p in P, delta(p, a) in W from P to PPrime
-        // At the end of the loop, P = P \ P'
-        for (Iterator<Integer> p_it = P.iterator(); p_it.hasNext();) {
-          int p = p_it.next();
-          int targetClass = classNo[noStates];
-          if (p != noStates) {
-            Edge<EdgeInfo> trans = graph.findEdge(p, a, comp);
-            if (trans != null)
-              targetClass = classNo[trans.getTarget()];
-          }
-          if (targetClass != WclassNo) {
-            PPrime.add(p);
-            p_it.remove();
-          }
-        }
-        if (P.isEmpty()) { // not splittable
-          P.addAll(PPrime);
-          continue;
-        }
-        if (PPrime.isEmpty()) continue; // not splittable
+    // Pseudocode lines 2-3: pair (W, a) is encoded as W * k + a
+    TIntArrayList wait = new TIntArrayList();
+    for (int b = 1; b < blocks.sets; ++b) {
+      for (int a = 0; a < k; ++a) {
+        wait.add(b * k + a);
+      }
+    }
 
-        // this will be the class number of the next P'
-        int currentClassNo = Partition.size();
-        Partition.add(PPrime);
+    TIntArrayList predecessors = new TIntArrayList();
+    while (! wait.isEmpty()) {
+      // Pseudocode line 5
+      int splitter = wait.removeAt(wait.size() - 1);
+      int w = splitter / k;
+      int a = splitter % k;
 
-        // for b : b \in Alphabet (Pseudocode line 9)
-        for (EdgeInfo info : graph.getAlphabet()) {
-          int addToClass = currentClassNo;
-          // Pseudocode line 10
-          if (Wait[pclassNo] != null && Wait[pclassNo].contains(info)) {
-            // replace P by P' and P'': P is already P', so add P'' (=Q0')
-            // which must be a new, currently unused bucket of Wait
-            // addToClass = currentClassNo; // nothing to do
-          } else { // P not contained in Wait
-            // Pseudocode line 13
-            if (P.size() < PPrime.size()) {
-              addToClass = pclassNo;
-            } // else addToClass = currentClassNo; // nothing to do
-          }
-          if (Wait[addToClass] == null) {
-            Wait[addToClass] = new TreeSet<EdgeInfo>(comp);
-          }
-          Wait[addToClass].add(info);
-          if (addToClass > lastInWait) lastInWait = addToClass;
-          if (addToClass < firstInWait) firstInWait = addToClass;
+      // collect all states with an a-transition into W first, because marking
+      // them reorders the elements of the blocks, maybe also the ones of W
+      predecessors.resetQuick();
+      for (int i = blocks.first[w]; i < blocks.end[w]; ++i) {
+        int slot = a * states + blocks.elems[i];
+        for (int j = inverseStart[slot]; j < inverseStart[slot + 1]; ++j) {
+          predecessors.add(inverse[j]);
         }
       }
-      // now adapt the class numbers for vertices in newly created equivalence
-      // classes. This may not change in the loop before because we need the
-      // old P attributions, not the P'
-      for(int newClassNo = oldPsize; newClassNo < Partition.size(); ++newClassNo) {
-        for(int v : Partition.get(newClassNo)) {
-          classNo[v] = newClassNo;
+      // Pseudocode lines 6-8
+      int oldSets = blocks.sets;
+      for (int i = 0; i < predecessors.size(); ++i) {
+        blocks.mark(predecessors.getQuick(i));
+      }
+      blocks.split();
+      // Pseudocode lines 9-13: the new blocks are the smaller halves
+      for (int b = oldSets; b < blocks.sets; ++b) {
+        for (int c = 0; c < k; ++c) {
+          wait.add(b * k + c);
         }
       }
-    } while (true);
-    //System.out.println(L);System.out.println(P);
+    }
 
-    // Now determine representatives and delete non-representative nodes
-    int[] representative = new int[graph.getNumberOfVertices()];
-    for (int i = 0; i < representative.length; ++i) {
-      if (graph.isVertex(i)) {
-        representative[i] = Partition.get(classNo[i]).get(0);
-      }
+    // Now determine representatives: the smallest vertex of every block, and
+    // delete non-representative nodes
+    int[] blockRep = new int[blocks.sets];
+    for (int b = 0; b < blocks.sets; ++b) {
+      blockRep[b] = Integer.MAX_VALUE;
+    }
+    for (int i = 0; i < n; ++i) {
+      int b = blocks.setOf[i];
+      blockRep[b] = Math.min(blockRep[b], vertexOf.get(i));
+    }
+    int[] representative = new int[noVertices];
+    for (int v = 0; v < noVertices; ++v) {
+      representative[v] = (index[v] < 0) ? v : blockRep[blocks.setOf[index[v]]];
     }
     reduceAutomaton(graph, representative, comp);
+  }
 
+  /** Compute the (dense) targets of vertex for all symbols into delta, using
+   *  fail for missing transitions. The fail state itself is given as -1.
+   */
+  private static <EdgeInfo> void fillDelta(AbstractAutomaton<EdgeInfo> graph,
+      Map<EdgeInfo, Integer> symbols, int[] index, int vertex, int fail,
+      int[] delta) {
+    for (int a = 0; a < delta.length; ++a) {
+      delta[a] = fail;
+    }
+    if (vertex < 0) return;
+    for (Edge<EdgeInfo> e : graph.getOutEdges(vertex)) {
+      Integer a = symbols.get(e.getInfo());
+      if (a != null) {
+        delta[a] = index[e.getTarget()];
+      }
+    }
   }
 
+  /** Return true if fsa has no epsilon edges and no state with two out edges
+   *  with the same label.
+   */
+  static <EdgeInfo> boolean isDeterministic(AbstractAutomaton<EdgeInfo> fsa,
+      Comparator<EdgeInfo> comp) {
+    TreeSet<EdgeInfo> labels = new TreeSet<EdgeInfo>(comp);
+    for (int v = 0; v < fsa.getNumberOfVertices(); ++v) {
+      if (! fsa.isVertex(v)) continue;
+      labels.clear();
+      for (Edge<EdgeInfo> e : fsa.getOutEdges(v)) {
+        if (fsa.isEpsilon(e.getInfo()) || ! labels.add(e.getInfo())) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   *  This computes the minimal deterministic automaton for the given
+   *  automaton into result, choosing the algorithm by the kind and size of
+   *  the input: deterministic automata and big non-deterministic ones are
+   *  (re-)determinized and minimized with Hopcroft's algorithm, small
+   *  non-deterministic ones with {@link MinimizationBrzowski}, which avoids
+   *  the intermediate deterministic automaton. The result contains only states
+   *  reachable from the initial state.
+   *
+   * @param result the resulting minimal automaton. Must be a fresh
+   *           automaton and is passed as parameter to make it possible to use
+   *           this method for subclasses.
+   */
+  public static <EdgeInfo> void minimize(
+      AbstractAutomaton<EdgeInfo> fsa, Comparator<EdgeInfo> comp,
+      AbstractAutomaton<EdgeInfo> result) {
+    int noStates = 0;
+    for (int v = 0; v < fsa.getNumberOfVertices(); ++v) {
+      if (fsa.isVertex(v)) ++noStates;
+    }
+    if (noStates <= BRZOZOWSKI_MAX_STATES && ! isDeterministic(fsa, comp)) {
+      MinimizationBrzowski.minimize(fsa, comp, result);
+    } else {
+      Determinization.determinize(fsa, comp, result);
+      minimize(result, comp);
+    }
+  }
 }
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa.algo;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.stack.TIntStack;
+import gnu.trove.stack.array.TIntArrayStack;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Map;
+
+import de.dfki.lt.loot.digraph.Edge;
+import de.dfki.lt.loot.fsa.AbstractAutomaton;
+
+/** Minimization of deterministic automata with partial transition
+ *  functions.
+ *
+ *  Other than {@link Minimization}, this algorithm does not need a total
+ *  transition function, so neither {@link
+ *  de.dfki.lt.loot.fsa.FiniteAutomaton#makeTotal()} nor a virtual fail state
+ *  with in-edges for all missing transitions is needed. The running time is
+ *  O(m log n) for m transitions and n states, independent of the size of the
+ *  alphabet, which makes it the right choice for sparse automata over big
+ *  alphabets, like most {@link de.dfki.lt.loot.fsa.StringFsa}s.
+ *
+ *  Reference: Valmari, Lehtinen "Efficient minimization of DFAs with partial
+ *  transition functions" ('08)
+ *
+ *  The algorithm refines two partitions at the same time: the blocks of
+ *  states, and the "cords", which are sets of transitions with the same
+ *  label whose targets are in the same block. Cords split blocks by their
+ *  source states, new blocks split cords by their target states.
+ */
+public class MinimizationValmari {
+
+  /** Remove all states that are not reachable from the initial state, or
+   *  from which no final state can be reached, and return the remaining
+   *  states. If the language is empty, nothing is removed.
+   */
+  private static <EdgeInfo> BitSet removeIrrelevantStates(
+      AbstractAutomaton<EdgeInfo> graph) {
+    final int noVertices = graph.getNumberOfVertices();
+    BitSet reachable = new BitSet(noVertices);
+    TIntStack active = new TIntArrayStack();
+    reachable.set(graph.getInitialState());
+    active.push(graph.getInitialState());
+    while (active.size() > 0) {
+      int v = active.pop();
+      for (Edge<EdgeInfo> e : graph.getOutEdges(v)) {
+        if (! reachable.get(e.getTarget())) {
+          reachable.set(e.getTarget());
+          active.push(e.getTarget());
+        }
+      }
+    }
+
+    // the converse is only needed for the reachable part
+    BitSet relevant = new BitSet(noVertices);
+    TIntArrayList[] predecessors = new TIntArrayList[noVertices];
+    for (int v = reachable.nextSetBit(0); v >= 0;
+         v = reachable.nextSetBit(v + 1)) {
+      for (Edge<EdgeInfo> e : graph.getOutEdges(v)) {
+        int t = e.getTarget();
+        if (predecessors[t] == null) {
+          predecessors[t] = new TIntArrayList(2);
+        }
+        predecessors[t].add(v);
+      }
+      if (graph.isFinalState(v)) {
+        relevant.set(v);
+        active.push(v);
+      }
+    }
+    if (relevant.isEmpty()) {
+      reachable.clear();
+      for (int v = 0; v < noVertices; ++v) {
+        if (graph.isVertex(v)) reachable.set(v);
+      }
+      return reachable;
+    }
+    while (active.size() > 0) {
+      int v = active.pop();
+      if (predecessors[v] == null) continue;
+      for (int i = 0; i < predecessors[v].size(); ++i) {
+        int p = predecessors[v].getQuick(i);
+        if (! relevant.get(p)) {
+          relevant.set(p);
+          active.push(p);
+        }
+      }
+    }
+    // the initial state must stay in the automaton
+    relevant.set(graph.getInitialState());
+
+    boolean removed = false;
+    for (int v = 0; v < noVertices; ++v) {
+      if (graph.isVertex(v) && ! relevant.get(v)) {
+        graph.removeVertexLazy(v);
+        removed = true;
+      }
+    }
+    if (removed) {
+      graph.cleanupEdges();
+    }
+    return relevant;
+  }
+
+  /**
+   *  This computes the minimal automaton equivalent to this one.
+   *
+   *  The current automaton is turned destructively into its minimal
+   *  counterpart. The automaton must be deterministic, but need not be
+   *  total. States which are not reachable from the initial state or can not
+   *  reach a final state are removed.
+   */
+  public static <EdgeInfo> void minimize(
+    AbstractAutomaton<EdgeInfo> graph, Comparator<EdgeInfo> comp) {
+
+    BitSet relevant = removeIrrelevantStates(graph);
+
+    // dense numbering of the states
+    final int noVertices = graph.getNumberOfVertices();
+    int[] index = new int[noVertices];
+    int[] vertexOf = new int[relevant.cardinality()];
+    int n = 0;
+    for (int v = 0; v < noVertices; ++v) {
+      if (relevant.get(v)) {
+        index[v] = n;
+        vertexOf[n++] = v;
+      } else {
+        index[v] = -1;
+      }
+    }
+
+    // the transitions: tail, label and head
+    Map<EdgeInfo, Integer> symbols = Minimization.alphabetIndex(graph, comp);
+    TIntArrayList tails = new TIntArrayList();
+    TIntArrayList labels = new TIntArrayList();
+    TIntArrayList heads = new TIntArrayList();
+    for (int i = 0; i < n; ++i) {
+      for (Edge<EdgeInfo> e : graph.getOutEdges(vertexOf[i])) {
+        Integer label = symbols.get(e.getInfo());
+        if (label != null) {
+          tails.add(i);
+          labels.add(label);
+          heads.add(index[e.getTarget()]);
+        }
+      }
+    }
+    final int m = tails.size();
+
+    // the incoming transitions of every state
+    int[] inStart = new int[n + 1];
+    for (int t = 0; t < m; ++t) {
+      ++inStart[heads.getQuick(t) + 1];
+    }
+    for (int i = 1; i <= n; ++i) {
+      inStart[i] += inStart[i - 1];
+    }
+    int[] incoming = new int[m];
+    {
+      int[] fill = new int[n];
+      for (int t = 0; t < m; ++t) {
+        int h = heads.getQuick(t);
+        incoming[inStart[h] + fill[h]++] = t;
+      }
+    }
+
+    // the initial partition of the states: final and non-final states
+    RefinablePartition blocks = new RefinablePartition(n);
+    for (int i = 0; i < n; ++i) {
+      if (graph.isFinalState(vertexOf[i])) {
+        blocks.mark(i);
+      }
+    }
+    blocks.split();
+
+    // the initial cords: all transitions with the same label
+    RefinablePartition cords =
+        new RefinablePartition(m, labels.toArray(), symbols.size());
+
+    int b = 1, c = 0;
+    while (c < cords.sets) {
+      // split the blocks by the sources of the transitions in cord c
+      for (int i = cords.first[c]; i < cords.end[c]; ++i) {
+        blocks.mark(tails.getQuick(cords.elems[i]));
+      }
+      blocks.split();
+      ++c;
+      // split the cords by the transitions into the new blocks
+      while (b < blocks.sets) {
+        for (int i = blocks.first[b]; i < blocks.end[b]; ++i) {
+          int state = blocks.elems[i];
+          for (int j = inStart[state]; j < inStart[state + 1]; ++j) {
+            cords.mark(incoming[j]);
+          }
+        }
+        cords.split();
+        ++b;
+      }
+    }
+
+    // the smallest vertex of every block is its representative
+    int[] blockRep = new int[blocks.sets];
+    for (int i = n - 1; i >= 0; --i) {
+      blockRep[blocks.setOf[i]] = vertexOf[i];
+    }
+    int[] representative = new int[noVertices];
+    for (int v = 0; v < noVertices; ++v) {
+      representative[v] = (index[v] < 0) ? v : blockRep[blocks.setOf[index[v]]];
+    }
+    Minimization.reduceAutomaton(graph, representative, comp);
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa.algo;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TLongIntHashMap;
+
+import java.util.Comparator;
+
+import de.dfki.lt.loot.digraph.Edge;
+import de.dfki.lt.loot.fsa.AbstractAutomaton;
+
+/** Product constructions for intersection and difference of automata.
+ *
+ *  The product is built on the fly: starting from the pair of initial
+ *  states, only the pairs that are reachable by a synchronized walk through
+ *  both automata are created. A pair (p, q) is packed into a long key to
+ *  find its number. The emptiness tests use the same walk without building
+ *  the product, and stop at the first accepting pair.
+ *
+ *  Epsilon edges are followed in one automaton while the other one stays in
+ *  its state, so the arguments of the intersection may be non-deterministic.
+ *  For the difference, the second automaton is determinized if necessary,
+ *  because the walk needs its complement.
+ */
+public class Product {
+
+  /** The pairs of the product, and their mapping to numbers */
+  private static class Pairs {
+    TLongIntHashMap ids = new TLongIntHashMap(Constants.DEFAULT_CAPACITY,
+        Constants.DEFAULT_LOAD_FACTOR, -1L, -1);
+    TIntArrayList first = new TIntArrayList();
+    TIntArrayList second = new TIntArrayList();
+
+    /** Return the number of pair (p, q), adding it if it is new */
+    int get(int p, int q) {
+      long key = ((long) p << 32) | q;
+      int id = ids.get(key);
+      if (id < 0) {
+        id = first.size();
+        ids.put(key, id);
+        first.add(p);
+        second.add(q);
+      }
+      return id;
+    }
+  }
+
+  /** Walk through the reachable pairs of states of a and b. If result is
+   *  null, return true as soon as an accepting pair is found, otherwise
+   *  build the product into result and return true if it has an accepting
+   *  state.
+   *
+   *  For the difference, b must be deterministic, and a pair (p, sink)
+   *  means that b has no path for the prefix read so far.
+   */
+  private static <EdgeInfo> boolean walk(AbstractAutomaton<EdgeInfo> a,
+      AbstractAutomaton<EdgeInfo> b, Comparator<EdgeInfo> comp,
+      boolean difference, AbstractAutomaton<EdgeInfo> result) {
+    final int sink = b.getNumberOfVertices();
+    Pairs pairs = new Pairs();
+    // the vertex in result for every pair
+    TIntArrayList vertex = new TIntArrayList();
+    boolean accepting = false;
+
+    pairs.get(a.getInitialState(), b.getInitialState());
+    if (result != null) {
+      vertex.add(result.newVertex());
+      result.setInitialState(vertex.get(0));
+    }
+    for (int i = 0; i < pairs.first.size(); ++i) {
+      int p = pairs.first.get(i);
+      int q = pairs.second.get(i);
+      boolean finalQ = q != sink && b.isFinalState(q);
+      if (a.isFinalState(p) && (difference ? ! finalQ : finalQ)) {
+        if (result == null) return true;
+        result.setFinalState(vertex.get(i));
+        accepting = true;
+      }
+
+      for (Edge<EdgeInfo> e : a.getOutEdges(p)) {
+        EdgeInfo info = e.getInfo();
+        if (a.isEpsilon(info)) {
+          addEdge(pairs, vertex, result, info, i, e.getTarget(), q);
+        } else if (difference) {
+          addEdge(pairs, vertex, result, info, i, e.getTarget(),
+              Equivalence.next(b, q, info, comp, sink));
+        } else {
+          for (Edge<EdgeInfo> f : b.findEdges(q, info, comp)) {
+            addEdge(pairs, vertex, result, info, i, e.getTarget(),
+                f.getTarget());
+          }
+        }
+      }
+      if (! difference) {
+        for (Edge<EdgeInfo> f : b.getOutEdges(q)) {
+          if (b.isEpsilon(f.getInfo())) {
+            addEdge(pairs, vertex, result, f.getInfo(), i, p, f.getTarget());
+          }
+        }
+      }
+    }
+    return accepting;
+  }
+
+  /** Add the edge from pair number source to pair (p, q) to result, if
+   *  there is a result.
+   */
+  private static <EdgeInfo> void addEdge(Pairs pairs, TIntArrayList vertex,
+      AbstractAutomaton<EdgeInfo> result, EdgeInfo info, int source,
+      int p, int q) {
+    int target = pairs.get(p, q);
+    if (result == null) return;
+    while (vertex.size() <= target) {
+      vertex.add(result.newVertex());
+    }
+    result.newEdge(info, vertex.get(source), vertex.get(target));
+  }
+
+  /** Compute the intersection of a and b into result, which must be a fresh
+   *  automaton and is passed as parameter to make it possible to use this
+   *  method for subclasses. It must use the same representation for
+   *  epsilon edges as a and b.
+   *
+   * @return true if the intersection is not empty
+   */
+  public static <EdgeInfo> boolean intersection(AbstractAutomaton<EdgeInfo> a,
+      AbstractAutomaton<EdgeInfo> b, Comparator<EdgeInfo> comp,
+      AbstractAutomaton<EdgeInfo> result) {
+    return walk(a, b, comp, false, result);
+  }
+
+  /** Compute the automaton for all words of a that are not accepted by b
+   *  into result, which must be a fresh automaton, see {@link #intersection}.
+   *
+   * @return true if the difference is not empty
+   */
+  public static <EdgeInfo> boolean difference(AbstractAutomaton<EdgeInfo> a,
+      AbstractAutomaton<EdgeInfo> b, Comparator<EdgeInfo> comp,
+      AbstractAutomaton<EdgeInfo> result) {
+    return walk(a, Determinization.deterministic(b, comp), comp, true, result);
+  }
+
+  /** Return true if there is no word accepted by both a and b */
+  public static <EdgeInfo> boolean isIntersectionEmpty(
+      AbstractAutomaton<EdgeInfo> a, AbstractAutomaton<EdgeInfo> b,
+      Comparator<EdgeInfo> comp) {
+    return ! walk(a, b, comp, false, null);
+  }
+
+  /** Return true if every word accepted by a is also accepted by b */
+  public static <EdgeInfo> boolean isDifferenceEmpty(
+      AbstractAutomaton<EdgeInfo> a, AbstractAutomaton<EdgeInfo> b,
+      Comparator<EdgeInfo> comp) {
+    return ! walk(a, Determinization.deterministic(b, comp), comp, true, null);
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa.algo;
+
+/** An array based partition of the elements 0 .. n-1 that can be refined by
+ *  marking elements and splitting the sets into their marked and unmarked
+ *  parts, as used by the partition refinement minimization algorithms.
+ *
+ *  The elements of a set are stored contiguously in elems[first[s] ..
+ *  end[s]-1], the marked elements of a set are moved to the front of its
+ *  range. All operations are O(1) per element, a split is linear in the size
+ *  of the new set.
+ *
+ *  Reference: Valmari, Lehtinen "Efficient minimization of DFAs with partial
+ *  transition functions" ('08)
+ */
+class RefinablePartition {
+
+  /** The number of sets */
+  int sets;
+
+  /** The elements, ordered by set */
+  final int[] elems;
+
+  /** The position of an element in elems */
+  private final int[] loc;
+
+  /** The set an element belongs to */
+  final int[] setOf;
+
+  /** The start of a set in elems */
+  final int[] first;
+
+  /** The end of a set in elems (exclusive) */
+  final int[] end;
+
+  /** The number of marked elements of a set */
+  private final int[] marked;
+
+  /** The sets that contain marked elements */
+  private final int[] touched;
+  private int noTouched;
+
+  /** Create a partition of n elements which initially consists of one set,
+   *  or none if n is zero.
+   */
+  RefinablePartition(int n) {
+    sets = (n > 0) ? 1 : 0;
+    elems = new int[n];
+    loc = new int[n];
+    setOf = new int[n];
+    first = new int[n];
+    end = new int[n];
+    marked = new int[n];
+    touched = new int[n];
+    noTouched = 0;
+    for (int i = 0; i < n; ++i) {
+      elems[i] = loc[i] = i;
+    }
+    if (n > 0) {
+      first[0] = 0;
+      end[0] = n;
+    }
+  }
+
+  /** Create a partition of n elements where the elements with the same key
+   *  form a set. The keys must be in 0 .. noKeys-1, the sets are numbered in
+   *  the order of their keys, empty sets are skipped.
+   */
+  RefinablePartition(int n, int[] key, int noKeys) {
+    this(n);
+    // counting sort of the elements by key
+    int[] start = new int[noKeys + 1];
+    for (int e = 0; e < n; ++e) {
+      ++start[key[e] + 1];
+    }
+    for (int k = 1; k <= noKeys; ++k) {
+      start[k] += start[k - 1];
+    }
+    sets = 0;
+    for (int k = 0; k < noKeys; ++k) {
+      if (start[k] < start[k + 1]) {
+        first[sets] = start[k];
+        end[sets] = start[k + 1];
+        ++sets;
+      }
+    }
+    for (int e = 0; e < n; ++e) {
+      int i = start[key[e]]++;
+      elems[i] = e;
+      loc[e] = i;
+    }
+    for (int s = 0; s < sets; ++s) {
+      for (int i = first[s]; i < end[s]; ++i) {
+        setOf[elems[i]] = s;
+      }
+    }
+  }
+
+  /** Return the size of set s */
+  int size(int s) {
+    return end[s] - first[s];
+  }
+
+  /** Mark element e, marking an element twice has no effect */
+  void mark(int e) {
+    int s = setOf[e];
+    int i = loc[e];
+    int j = first[s] + marked[s];
+    if (i < j) return;
+    elems[i] = elems[j];
+    loc[elems[i]] = i;
+    elems[j] = e;
+    loc[e] = j;
+    if (marked[s]++ == 0) {
+      touched[noTouched++] = s;
+    }
+  }
+
+  /** Split all sets with marked elements into the marked and the unmarked
+   *  part, if both are non-empty. The smaller of the two parts gets a new
+   *  set number, so the new sets are exactly the sets between the value of
+   *  {@link #sets} before and after the call. All marks are removed.
+   */
+  void split() {
+    while (noTouched > 0) {
+      int s = touched[--noTouched];
+      int j = first[s] + marked[s];
+      if (j == end[s]) {
+        marked[s] = 0;
+        continue;
+      }
+      int z = sets++;
+      if (marked[s] <= end[s] - j) {
+        // the marked part is the new set
+        first[z] = first[s];
+        end[z] = first[s] = j;
+      } else {
+        end[z] = end[s];
+        first[z] = end[s] = j;
+      }
+      for (int i = first[z]; i < end[z]; ++i) {
+        setOf[elems[i]] = z;
+      }
+      marked[s] = marked[z] = 0;
+    }
+  }
+}
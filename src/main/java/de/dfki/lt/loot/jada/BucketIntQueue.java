@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/** Dial's bucket queue: an indexed priority queue for non-negative int keys
+ *  that are monotone and lie within a fixed range above the last extracted
+ *  key. This is the case for Dijkstra's algorithm with edge weights in
+ *  [0, maxWeight]: all keys in the queue are between the current distance d
+ *  and d + maxWeight.
+ *
+ *  There is one bucket per key in this range, used cyclically, so all
+ *  operations except extractMin are constant time, and extractMin scans at
+ *  most maxWeight + 1 buckets. The keys are read from the key function when
+ *  an element is inserted or its key decreased, and cached.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class BucketIntQueue implements IntPriorityQueue {
+
+  private static final int NONE = -1, ABSENT = -2;
+
+  private final IntUnaryOperator _keyFunction;
+
+  /** The number of buckets, maxWeight + 1 */
+  private final int _range;
+
+  /** The cached key of every element */
+  private int[] _keys;
+
+  /** The doubly linked bucket lists */
+  private int[] _next, _prev;
+
+  /** The bucket of every element, or ABSENT */
+  private int[] _bucket;
+
+  private final int[] _heads;
+
+  /** The key of the last extracted element */
+  private int _last = 0;
+
+  private int _size = 0;
+
+  /** A queue for elements in [0, capacity[ whose keys, computed by key, are
+   *  never more than maxWeight above the last extracted key
+   */
+  public BucketIntQueue(int capacity, int maxWeight, IntUnaryOperator key) {
+    if (maxWeight < 0 || maxWeight == Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("illegal maximal weight " + maxWeight);
+    }
+    capacity = Math.max(capacity, 8);
+    _keyFunction = key;
+    _range = maxWeight + 1;
+    _heads = new int[_range];
+    Arrays.fill(_heads, NONE);
+    _keys = new int[capacity];
+    _next = new int[capacity];
+    _prev = new int[capacity];
+    _bucket = new int[capacity];
+    Arrays.fill(_bucket, ABSENT);
+  }
+
+  private void ensureElement(int element) {
+    if (element >= _bucket.length) {
+      int old = _bucket.length;
+      int capacity = Math.max(2 * old, element + 1);
+      _keys = Arrays.copyOf(_keys, capacity);
+      _next = Arrays.copyOf(_next, capacity);
+      _prev = Arrays.copyOf(_prev, capacity);
+      _bucket = Arrays.copyOf(_bucket, capacity);
+      Arrays.fill(_bucket, old, capacity, ABSENT);
+    }
+  }
+
+  private void link(int element, int bucket) {
+    int head = _heads[bucket];
+    _next[element] = head;
+    _prev[element] = NONE;
+    if (head != NONE) _prev[head] = element;
+    _heads[bucket] = element;
+    _bucket[element] = bucket;
+  }
+
+  private void unlink(int element) {
+    int p = _prev[element], n = _next[element];
+    if (p == NONE) {
+      _heads[_bucket[element]] = n;
+    } else {
+      _next[p] = n;
+    }
+    if (n != NONE) _prev[n] = p;
+    _bucket[element] = ABSENT;
+  }
+
+  /** Read the key of element and check that it is in range */
+  private int key(int element) {
+    int key = _keyFunction.applyAsInt(element);
+    if (key < 0) {
+      throw new IllegalArgumentException(
+          "negative key " + key + " of " + element);
+    }
+    boolean inRange = key >= _last && (long) key - _last < _range;
+    if (! inRange && _size == 0) {
+      // an empty queue accepts any key and starts over from there
+      _last = key;
+      inRange = true;
+    }
+    if (! inRange) {
+      throw new IllegalArgumentException("key " + key + " of " + element
+          + " out of range [" + _last + ", " + (_last + _range - 1L) + "]");
+    }
+    return key;
+  }
+
+  @Override
+  public void insert(int element) {
+    ensureElement(element);
+    if (_bucket[element] != ABSENT) {
+      throw new IllegalArgumentException("already in queue: " + element);
+    }
+    int key = key(element);
+    _keys[element] = key;
+    link(element, key % _range);
+    ++_size;
+  }
+
+  @Override
+  public void decreaseKey(int element) {
+    int key = key(element);
+    _keys[element] = key;
+    int bucket = key % _range;
+    if (bucket != _bucket[element]) {
+      unlink(element);
+      link(element, bucket);
+    }
+  }
+
+  @Override
+  public void remove(int element) {
+    if (! contains(element)) return;
+    unlink(element);
+    --_size;
+  }
+
+  @Override
+  public int minimum() {
+    if (_size == 0) throw new EmptyHeapException("minimum of empty heap");
+    // all keys are in [_last, _last + _range[, so the first non-empty bucket
+    // from _last on holds the minimal key
+    int bucket = _last % _range;
+    while (_heads[bucket] == NONE) {
+      if (++bucket == _range) bucket = 0;
+    }
+    int min = _heads[bucket];
+    _last = _keys[min];
+    return min;
+  }
+
+  @Override
+  public int extractMin() {
+    int min = minimum();
+    unlink(min);
+    --_size;
+    return min;
+  }
+
+  @Override
+  public boolean contains(int element) {
+    return element >= 0 && element < _bucket.length
+        && _bucket[element] != ABSENT;
+  }
+
+  @Override
+  public boolean isEmpty() { return _size == 0; }
+
+  @Override
+  public int size() { return _size; }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import gnu.trove.list.array.TIntArrayList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * {@link CompactIntTrie} is an immutable, array based trie over int
+ * sequences. The nodes are numbered in breadth first order, so the children
+ * of a node are consecutive, and a node is described by three ints: the label
+ * of its incoming edge, the position of its first child and its id. This
+ * needs a small fraction of the memory of {@link IntTrie} or
+ * {@link IntIntTrie}, which have an object and a list per node.
+ *
+ * The children of a node are sorted by label and found by binary search.
+ * Nodes are represented by their number, the root is node 0. A node is final
+ * if it has an id, which is:
+ *
+ * - the final id of the node when built from an {@link IntIntTrie}
+ * - the index of the sequence when bulk loaded with {@link #fromSorted(List)}
+ * - an index into the value table when built from an {@link IntTrie}, use
+ *   {@link #getValue(int)} to get the value
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class CompactIntTrie<T> {
+
+  /** The children of node i are the nodes _first[i] .. _first[i+1]-1 */
+  private final int[] _first;
+
+  /** The label of the edge into every node, unused for the root */
+  private final int[] _labels;
+
+  /** The id of every node, -1 for non-final nodes */
+  private final int[] _ids;
+
+  /** The values of an IntTrie, indexed by id, or null */
+  private final Object[] _values;
+
+  private final int _size;
+
+  private CompactIntTrie(TIntArrayList first, TIntArrayList labels,
+      TIntArrayList ids, Object[] values) {
+    first.add(labels.size());
+    _first = first.toArray();
+    _labels = labels.toArray();
+    _ids = ids.toArray();
+    _values = values;
+    int size = 0;
+    for (int id : _ids) {
+      if (id >= 0) ++size;
+    }
+    _size = size;
+  }
+
+  /** Orders trie nodes by label, without the overflow of compareTo */
+  private static final Comparator<IntTrie<?>> TRIE_ORDER =
+      new Comparator<IntTrie<?>>() {
+    @Override
+    public int compare(IntTrie<?> a, IntTrie<?> b) {
+      return Integer.compare(a._value, b._value);
+    }
+  };
+
+  private static final Comparator<IntIntTrie> INT_TRIE_ORDER =
+      new Comparator<IntIntTrie>() {
+    @Override
+    public int compare(IntIntTrie a, IntIntTrie b) {
+      return Integer.compare(a._value, b._value);
+    }
+  };
+
+  /** Build a compact copy of trie. The ids of the result index the values,
+   *  which are returned by {@link #getValue(int)}.
+   */
+  public static <T> CompactIntTrie<T> fromTrie(IntTrie<T> trie) {
+    TIntArrayList first = new TIntArrayList();
+    TIntArrayList labels = new TIntArrayList();
+    TIntArrayList ids = new TIntArrayList();
+    List<Object> values = new ArrayList<Object>();
+    List<IntTrie<T>> queue = new ArrayList<IntTrie<T>>();
+    queue.add(trie);
+    labels.add(0);
+    for (int i = 0; i < queue.size(); ++i) {
+      IntTrie<T> node = queue.get(i);
+      queue.set(i, null);
+      if (node._finalId != null) {
+        ids.add(values.size());
+        values.add(node._finalId);
+      } else {
+        ids.add(-1);
+      }
+      first.add(labels.size());
+      if (node._subs == null) continue;
+      List<IntTrie<T>> subs = new ArrayList<IntTrie<T>>(node._subs);
+      Collections.sort(subs, TRIE_ORDER);
+      for (IntTrie<T> sub : subs) {
+        labels.add(sub._value);
+        queue.add(sub);
+      }
+    }
+    return new CompactIntTrie<T>(first, labels, ids, values.toArray());
+  }
+
+  /** Build a compact copy of trie, with the same final ids */
+  public static CompactIntTrie<Integer> fromTrie(IntIntTrie trie) {
+    TIntArrayList first = new TIntArrayList();
+    TIntArrayList labels = new TIntArrayList();
+    TIntArrayList ids = new TIntArrayList();
+    List<IntIntTrie> queue = new ArrayList<IntIntTrie>();
+    queue.add(trie);
+    labels.add(0);
+    for (int i = 0; i < queue.size(); ++i) {
+      IntIntTrie node = queue.get(i);
+      queue.set(i, null);
+      ids.add(node._finalId);
+      first.add(labels.size());
+      if (node._subs == null) continue;
+      List<IntIntTrie> subs = new ArrayList<IntIntTrie>(node._subs);
+      Collections.sort(subs, INT_TRIE_ORDER);
+      for (IntIntTrie sub : subs) {
+        labels.add(sub._value);
+        queue.add(sub);
+      }
+    }
+    return new CompactIntTrie<Integer>(first, labels, ids, null);
+  }
+
+  /** Build a trie from sequences, which must be sorted lexicographically
+   *  (shorter sequences before their extensions) and contain no duplicates.
+   *  The id of a sequence is its index in sequences.
+   *
+   * @throws IllegalArgumentException if sequences are not sorted or contain
+   *         duplicates
+   */
+  public static CompactIntTrie<Integer> fromSorted(List<int[]> sequences) {
+    TIntArrayList first = new TIntArrayList();
+    TIntArrayList labels = new TIntArrayList();
+    TIntArrayList ids = new TIntArrayList();
+    // the node queue: the sequences from lo to hi share a prefix of length
+    // depth, which leads to the node
+    TIntArrayList lo = new TIntArrayList(), hi = new TIntArrayList();
+    TIntArrayList depth = new TIntArrayList();
+    labels.add(0);
+    lo.add(0); hi.add(sequences.size()); depth.add(0);
+    for (int i = 0; i < lo.size(); ++i) {
+      int l = lo.get(i), h = hi.get(i), d = depth.get(i);
+      if (l < h && sequences.get(l).length == d) {
+        if (l + 1 < h && sequences.get(l + 1).length == d) {
+          throw new IllegalArgumentException("duplicate sequence " + (l + 1));
+        }
+        ids.add(l++);
+      } else {
+        ids.add(-1);
+      }
+      first.add(labels.size());
+      int j = l;
+      while (j < h) {
+        int[] seq = sequences.get(j);
+        if (seq.length == d
+            || (j > l && seq[d] <= labels.get(labels.size() - 1))) {
+          throw new IllegalArgumentException("sequences not sorted at " + j);
+        }
+        int label = seq[d];
+        int k = j + 1;
+        while (k < h && sequences.get(k).length > d
+            && sequences.get(k)[d] == label) {
+          ++k;
+        }
+        labels.add(label);
+        lo.add(j); hi.add(k); depth.add(d + 1);
+        j = k;
+      }
+    }
+    return new CompactIntTrie<Integer>(first, labels, ids, null);
+  }
+
+  /** Return the root node */
+  public int getRoot() {
+    return 0;
+  }
+
+  /** Return the child of node for label, or -1 if there is none */
+  public int extend(int node, int label) {
+    int lo = _first[node], hi = _first[node + 1] - 1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      int l = _labels[mid];
+      if (l < label) {
+        lo = mid + 1;
+      } else if (l > label) {
+        hi = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  /** Return the node for seq, or -1 if it is not in the trie */
+  public int find(int[] seq) {
+    int node = 0;
+    for (int i = 0; node >= 0 && i < seq.length; ++i) {
+      node = extend(node, seq[i]);
+    }
+    return node;
+  }
+
+  /** is this a final node? */
+  public boolean isFinal(int node) {
+    return _ids[node] >= 0;
+  }
+
+  /** Return the id of node, or -1 if it is not final */
+  public int getId(int node) {
+    return _ids[node];
+  }
+
+  /** Return the id of seq, or -1 if it is not in the trie */
+  public int getId(int[] seq) {
+    int node = find(seq);
+    return node < 0 ? -1 : _ids[node];
+  }
+
+  /** Return the value of node if the trie was built from an {@link IntTrie},
+   *  the id otherwise, or null if node is not final.
+   */
+  @SuppressWarnings("unchecked")
+  public T getValue(int node) {
+    int id = _ids[node];
+    if (id < 0) return null;
+    return (T) (_values == null ? Integer.valueOf(id) : _values[id]);
+  }
+
+  /** Return the value of seq, see {@link #getValue(int)} */
+  public T getValue(int[] seq) {
+    int node = find(seq);
+    return node < 0 ? null : getValue(node);
+  }
+
+  /** Return the end position of the longest sequence in the trie that is a
+   *  prefix of seq[from..], or -1 if there is none.
+   */
+  public int longestPrefix(int[] seq, int from) {
+    int node = 0;
+    int end = isFinal(node) ? from : -1;
+    for (int i = from; i < seq.length; ++i) {
+      node = extend(node, seq[i]);
+      if (node < 0) break;
+      if (isFinal(node)) end = i + 1;
+    }
+    return end;
+  }
+
+  /** Return the label of the edge into node */
+  public int getLabel(int node) {
+    return _labels[node];
+  }
+
+  /** Return the number of children of node */
+  public int getNumberOfChildren(int node) {
+    return _first[node + 1] - _first[node];
+  }
+
+  /** Return the i-th child of node, in ascending label order */
+  public int getChild(int node, int i) {
+    return _first[node] + i;
+  }
+
+  public int getNumberOfNodes() {
+    return _ids.length;
+  }
+
+  /** Return the number of sequences in the trie */
+  public int size() {
+    return _size;
+  }
+
+  private void walkTrie(int node, CompactIntTrieWalker walker) {
+    walker.startNode(node);
+    for (int sub = _first[node]; sub < _first[node + 1]; ++sub) {
+      walker.beforeEdge(_labels[sub]);
+      walkTrie(sub, walker);
+      walker.afterEdge(_labels[sub]);
+    }
+    walker.endNode(node);
+  }
+
+  /** Walk the trie depth first, visiting the edges in ascending order */
+  public void walkTrie(CompactIntTrieWalker walker) {
+    walkTrie(0, walker);
+  }
+}
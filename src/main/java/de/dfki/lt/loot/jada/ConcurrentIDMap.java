@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/** A thread-safe variant of {@link IntIDMap}, mapping things from and to
+ *  dense integer IDs from many threads at once.
+ *
+ *  The things are mapped to their IDs by a {@link ConcurrentHashMap}, so
+ *  {@link #getId(Object)} never blocks, and {@link #register(Object)} has
+ *  get-or-register semantics: every thing gets exactly one ID, no matter how
+ *  many threads register it at the same time.
+ *
+ *  The IDs are mapped to the things by a chunked array whose chunks double in
+ *  size, so it grows without copying and {@link #fromId(int)} does not block
+ *  either.
+ */
+public class ConcurrentIDMap<THING> {
+
+  private static final int ILLEGAL_VALUE = -1;
+
+  /** The size of the first chunk is 1 << FIRST_BITS */
+  private static final int FIRST_BITS = 4;
+
+  private static final int MAX_ID = Integer.MAX_VALUE - (1 << FIRST_BITS);
+
+  /** Chunk k holds the IDs from (1 << (k + FIRST_BITS)) - (1 << FIRST_BITS)
+   *  on and has size 1 << (k + FIRST_BITS)
+   */
+  private final AtomicReferenceArray<AtomicReferenceArray<THING>> chunks =
+      new AtomicReferenceArray<AtomicReferenceArray<THING>>(
+          32 - FIRST_BITS);
+
+  /** data structure to map from the thing to the corresponding id */
+  private final ConcurrentHashMap<THING, Integer> type2Number;
+
+  private final AtomicInteger nextId = new AtomicInteger();
+
+  private final Function<THING, Integer> newId =
+      new Function<THING, Integer>() {
+    @Override
+    public Integer apply(THING thing) {
+      int id = nextId.getAndIncrement();
+      if (id > MAX_ID) {
+        nextId.decrementAndGet();
+        throw new IllegalStateException("too many IDs");
+      }
+      // store the thing before the map publishes the id
+      int pos = id + (1 << FIRST_BITS);
+      int k = chunkOf(pos);
+      chunk(k).set(pos - (1 << (k + FIRST_BITS)), thing);
+      return id;
+    }
+  };
+
+  public ConcurrentIDMap() {
+    type2Number = new ConcurrentHashMap<THING, Integer>();
+  }
+
+  public ConcurrentIDMap(int initialCapacity) {
+    type2Number = new ConcurrentHashMap<THING, Integer>(initialCapacity);
+  }
+
+  /** Return the chunk of pos, which is the ID plus 1 << FIRST_BITS */
+  private static int chunkOf(int pos) {
+    return 31 - Integer.numberOfLeadingZeros(pos) - FIRST_BITS;
+  }
+
+  /** Return chunk k, creating it if necessary */
+  private AtomicReferenceArray<THING> chunk(int k) {
+    AtomicReferenceArray<THING> chunk = chunks.get(k);
+    if (chunk == null) {
+      chunk = new AtomicReferenceArray<THING>(1 << (k + FIRST_BITS));
+      if (! chunks.compareAndSet(k, null, chunk)) {
+        chunk = chunks.get(k);
+      }
+    }
+    return chunk;
+  }
+
+  /** Return the ID of thing, registering it if it is not known yet */
+  public int register(THING thing) {
+    Integer id = type2Number.get(thing);
+    if (id != null) return id;
+    return type2Number.computeIfAbsent(thing, newId);
+  }
+
+  /** Return the ID of thing, or -1 if it is not registered */
+  public int getId(THING thing) {
+    Integer id = type2Number.get(thing);
+    return id == null ? ILLEGAL_VALUE : id;
+  }
+
+  /** Return the thing with the given ID, or null if there is none (yet) */
+  public THING fromId(int id) {
+    if (id < 0 || id >= nextId.get()) return null;
+    int pos = id + (1 << FIRST_BITS);
+    int k = chunkOf(pos);
+    AtomicReferenceArray<THING> chunk = chunks.get(k);
+    return chunk == null ? null : chunk.get(pos - (1 << (k + FIRST_BITS)));
+  }
+
+  public boolean contains(THING thing) {
+    return type2Number.containsKey(thing);
+  }
+
+  /** Return the number of IDs given out so far */
+  public int size() { return nextId.get(); }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{ ");
+    for (Map.Entry<THING, Integer> e : type2Number.entrySet()) {
+      sb.append("{" + e.getKey() + "," + e.getValue() + "} ");
+    }
+    sb.append("}");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * {@link ConcurrentIntIntTrie} is a thread-safe variant of {@link IntIntTrie}
+ * that maps int sequences to ids, for registering sequences from many
+ * threads at once. Every distinct sequence gets exactly one id, and the ids
+ * are dense, starting at zero.
+ *
+ * The children of a node are kept in an immutable sorted array, which is
+ * replaced by a compare-and-set with an extended copy when a child is added,
+ * so lookups never block and take logarithmic time per element. Adding a
+ * child this way costs time linear in the degree of the node, and threads
+ * adding children to the same node at the same time have to copy again if
+ * they lose the race. Therefore, nodes with more than
+ * {@link #MAX_ARRAY_DEGREE} children switch to a {@link ConcurrentHashMap},
+ * where adding is constant time and concurrent adds rarely conflict. Ids are
+ * taken from an atomic counter: the first thread that reaches a node
+ * reserves it, draws the id and publishes it. Other threads registering the
+ * same sequence at the same time wait for the publication.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class ConcurrentIntIntTrie {
+
+  private static final int NO_ID = -1, RESERVED = -2;
+
+  /** Nodes with more children use a hash table instead of a sorted array */
+  public static final int MAX_ARRAY_DEGREE = 16;
+
+  /** The children of a node: either immutable and sorted by label, or, for
+   *  nodes with a high degree, a concurrent hash table, which is final once
+   *  it is installed.
+   */
+  private static final class Children {
+    final int[] labels;
+    final Node[] nodes;
+    final ConcurrentHashMap<Integer, Node> table;
+
+    Children(int[] l, Node[] n) {
+      labels = l;
+      nodes = n;
+      table = null;
+    }
+
+    Children(ConcurrentHashMap<Integer, Node> t) {
+      labels = null;
+      nodes = null;
+      table = t;
+    }
+  }
+
+  private static final Children NO_CHILDREN =
+      new Children(new int[0], new Node[0]);
+
+  private static final class Node {
+    volatile Children subs = NO_CHILDREN;
+    volatile int finalId = NO_ID;
+
+    /** Return the child for label, or null if there is none */
+    Node find(int label) {
+      Children c = subs;
+      if (c.table != null) return c.table.get(label);
+      int pos = Arrays.binarySearch(c.labels, label);
+      return pos < 0 ? null : c.nodes[pos];
+    }
+
+    /** Return the child for label, adding it if necessary */
+    Node findOrAdd(int label) {
+      while (true) {
+        Children c = subs;
+        if (c.table != null) {
+          Node node = c.table.get(label);
+          if (node != null) return node;
+          node = new Node();
+          Node old = c.table.putIfAbsent(label, node);
+          return old != null ? old : node;
+        }
+        int pos = Arrays.binarySearch(c.labels, label);
+        if (pos >= 0) return c.nodes[pos];
+        pos = - pos - 1;
+        int n = c.labels.length;
+        if (n >= MAX_ARRAY_DEGREE) {
+          // switch to a hash table, the array can not change under our feet
+          ConcurrentHashMap<Integer, Node> table =
+              new ConcurrentHashMap<Integer, Node>(4 * n);
+          for (int i = 0; i < n; ++i) {
+            table.put(c.labels[i], c.nodes[i]);
+          }
+          Node node = new Node();
+          table.put(label, node);
+          if (SUBS.compareAndSet(this, c, new Children(table))) {
+            return node;
+          }
+          continue;
+        }
+        int[] labels = new int[n + 1];
+        Node[] nodes = new Node[n + 1];
+        System.arraycopy(c.labels, 0, labels, 0, pos);
+        System.arraycopy(c.nodes, 0, nodes, 0, pos);
+        System.arraycopy(c.labels, pos, labels, pos + 1, n - pos);
+        System.arraycopy(c.nodes, pos, nodes, pos + 1, n - pos);
+        Node node = new Node();
+        labels[pos] = label;
+        nodes[pos] = node;
+        if (SUBS.compareAndSet(this, c, new Children(labels, nodes))) {
+          return node;
+        }
+        // another thread changed the children, try again
+      }
+    }
+  }
+
+  private static final AtomicReferenceFieldUpdater<Node, Children> SUBS =
+      AtomicReferenceFieldUpdater.newUpdater(Node.class, Children.class,
+          "subs");
+
+  private static final AtomicIntegerFieldUpdater<Node> FINAL_ID =
+      AtomicIntegerFieldUpdater.newUpdater(Node.class, "finalId");
+
+  private final Node _root = new Node();
+
+  private final AtomicInteger _nextId = new AtomicInteger();
+
+  /** Add this int sequence to the trie, if it is not already there, and
+   *  return its id.
+   */
+  public int addSequence(int ... seq) {
+    Node node = _root;
+    for (int label : seq) {
+      node = node.findOrAdd(label);
+    }
+    int id = node.finalId;
+    if (id >= 0) return id;
+    if (FINAL_ID.compareAndSet(node, NO_ID, RESERVED)) {
+      id = _nextId.getAndIncrement();
+      node.finalId = id;
+      return id;
+    }
+    // another thread registers the same sequence right now
+    while ((id = node.finalId) < 0) {
+      Thread.onSpinWait();
+    }
+    return id;
+  }
+
+  /** Add the char sequence of string to this trie (interpreted as int[]) */
+  public int addSequence(String string) {
+    int[] seq = new int[string.length()];
+    for(int i = 0; i < seq.length; ++i) {
+      seq[i] = string.charAt(i);
+    }
+    return addSequence(seq);
+  }
+
+  /** Return the id of seq, or -1 if it is not in the trie */
+  public int getId(int ... seq) {
+    Node node = _root;
+    for (int label : seq) {
+      node = node.find(label);
+      if (node == null) return NO_ID;
+    }
+    int id = node.finalId;
+    return id < 0 ? NO_ID : id;
+  }
+
+  /** Return the number of ids that were given out */
+  public int size() {
+    return _nextId.get();
+  }
+}
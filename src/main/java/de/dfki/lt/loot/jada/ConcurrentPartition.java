@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntPredicate;
+
+/** A lock-free variant of {@link Partition} for use from many threads at
+ *  once, e.g., for connected components of a big graph computed in parallel.
+ *
+ *  The parent links are kept in an {@link AtomicIntegerArray}. A union links
+ *  the root with the bigger index below the other root by a compare-and-set,
+ *  which fails and is retried if the root got a parent in the meantime, so
+ *  the representative of a class is always its smallest element. Finding a
+ *  representative does path halving, also by compare-and-set, which never
+ *  changes the classes and may thus fail silently.
+ *
+ *  There are no member lists and no undo, see {@link Partition} for these.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class ConcurrentPartition {
+
+  private final AtomicIntegerArray parent;
+
+  /** Create a partition of n elements with each element is its own partition */
+  public ConcurrentPartition(int n) {
+    parent = new AtomicIntegerArray(n);
+    for (int i = 0; i < n; ++i) {
+      parent.set(i, i);
+    }
+  }
+
+  /** Find the representative of an equivalence class, doing path halving.
+   *  The result is only guaranteed to be current if no concurrent union
+   *  touches the class.
+   */
+  public int findRepresentative(int a) {
+    while (true) {
+      int p = parent.get(a);
+      if (p == a) return a;
+      int gp = parent.get(p);
+      if (gp == p) return p;
+      parent.compareAndSet(a, p, gp);
+      a = gp;
+    }
+  }
+
+  /** Merge the equivalence classes of a and b and return the new
+   *  representative, which is the smaller of the two old ones.
+   */
+  public int union(int a, int b) {
+    while (true) {
+      a = findRepresentative(a);
+      b = findRepresentative(b);
+      if (a == b) return a;
+      if (a < b) {
+        int h = a; a = b; b = h;
+      }
+      // link a below b, fails if a is not a root anymore
+      if (parent.compareAndSet(a, a, b)) return b;
+    }
+  }
+
+  /** Are a and b in the same equivalence class? */
+  public boolean equiv(int a, int b) {
+    while (true) {
+      a = findRepresentative(a);
+      b = findRepresentative(b);
+      if (a == b) return true;
+      // if a is still a root, a and b were in different classes when b's
+      // root was found
+      if (parent.get(a) == a) return false;
+    }
+  }
+
+  /** Return the number of elements */
+  public int size() {
+    return parent.length();
+  }
+
+  /** Return dense class labels for all elements, numbered from zero in the
+   *  order of the smallest element of each class, see
+   *  {@link Partition#compactLabels()}. Must not run concurrently with
+   *  {@link #union(int, int)}.
+   */
+  public int[] compactLabels() {
+    return compactLabels(null);
+  }
+
+  /** Return dense class labels for the elements accepted by filter, and -1
+   *  for all others, see {@link Partition#compactLabels(IntPredicate)}. Must
+   *  not run concurrently with {@link #union(int, int)}.
+   */
+  public int[] compactLabels(IntPredicate filter) {
+    int n = parent.length();
+    int[] label = new int[n];
+    // the label of every representative, -1 if not assigned yet
+    int[] classLabel = new int[n];
+    Arrays.fill(classLabel, -1);
+    int next = 0;
+    for (int i = 0; i < n; ++i) {
+      if (filter != null && ! filter.test(i)) {
+        label[i] = -1;
+        continue;
+      }
+      int rep = findRepresentative(i);
+      if (classLabel[rep] < 0) {
+        classLabel[rep] = next++;
+      }
+      label[i] = classLabel[rep];
+    }
+    return label;
+  }
+}
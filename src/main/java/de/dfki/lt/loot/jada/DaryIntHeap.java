@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import java.util.Arrays;
+
+/** An indexed d-ary min heap, stored in two int arrays: the heap itself and
+ *  the position of every element in it. Needs no allocation per element, and
+ *  with d = 4 fewer cache misses than a binary heap for large queues.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class DaryIntHeap implements IntPriorityQueue {
+
+  private static final int ABSENT = -1;
+
+  private final int _d;
+
+  private final IntComparator _order;
+
+  private int[] _heap;
+
+  /** The position of every element in _heap, or ABSENT */
+  private int[] _pos;
+
+  private int _size;
+
+  /** A heap with d children per node for elements in [0, capacity[ */
+  public DaryIntHeap(int capacity, int d, IntComparator order) {
+    if (d < 2) {
+      throw new IllegalArgumentException("d must be at least 2: " + d);
+    }
+    capacity = Math.max(capacity, 8);
+    _d = d;
+    _order = order;
+    _heap = new int[capacity];
+    _pos = new int[capacity];
+    Arrays.fill(_pos, ABSENT);
+    _size = 0;
+  }
+
+  private void ensureElement(int element) {
+    if (element >= _pos.length) {
+      int old = _pos.length;
+      _pos = Arrays.copyOf(_pos, Math.max(2 * old, element + 1));
+      Arrays.fill(_pos, old, _pos.length, ABSENT);
+    }
+  }
+
+  /** Move the element at position i up until its parent is not bigger */
+  private void siftUp(int i) {
+    int element = _heap[i];
+    while (i > 0) {
+      int parent = (i - 1) / _d;
+      if (_order.compare(element, _heap[parent]) >= 0) break;
+      _heap[i] = _heap[parent];
+      _pos[_heap[i]] = i;
+      i = parent;
+    }
+    _heap[i] = element;
+    _pos[element] = i;
+  }
+
+  /** Move the element at position i down until no child is smaller */
+  private void siftDown(int i) {
+    int element = _heap[i];
+    while (true) {
+      int first = _d * i + 1;
+      if (first >= _size) break;
+      int min = first;
+      int last = Math.min(first + _d, _size);
+      for (int c = first + 1; c < last; ++c) {
+        if (_order.compare(_heap[c], _heap[min]) < 0) min = c;
+      }
+      if (_order.compare(_heap[min], element) >= 0) break;
+      _heap[i] = _heap[min];
+      _pos[_heap[i]] = i;
+      i = min;
+    }
+    _heap[i] = element;
+    _pos[element] = i;
+  }
+
+  @Override
+  public void insert(int element) {
+    ensureElement(element);
+    if (_pos[element] != ABSENT) {
+      throw new IllegalArgumentException("already in queue: " + element);
+    }
+    if (_size == _heap.length) {
+      _heap = Arrays.copyOf(_heap, 2 * _size);
+    }
+    _heap[_size] = element;
+    siftUp(_size++);
+  }
+
+  @Override
+  public void decreaseKey(int element) {
+    siftUp(_pos[element]);
+  }
+
+  @Override
+  public void remove(int element) {
+    if (! contains(element)) return;
+    int i = _pos[element];
+    _pos[element] = ABSENT;
+    int last = _heap[--_size];
+    if (i < _size) {
+      _heap[i] = last;
+      siftUp(i);
+      siftDown(_pos[last]);
+    }
+  }
+
+  @Override
+  public int extractMin() {
+    int min = minimum();
+    _pos[min] = ABSENT;
+    if (--_size > 0) {
+      _heap[0] = _heap[_size];
+      siftDown(0);
+    }
+    return min;
+  }
+
+  @Override
+  public int minimum() {
+    if (_size == 0) throw new EmptyHeapException("minimum of empty heap");
+    return _heap[0];
+  }
+
+  @Override
+  public boolean contains(int element) {
+    return element >= 0 && element < _pos.length && _pos[element] != ABSENT;
+  }
+
+  @Override
+  public boolean isEmpty() { return _size == 0; }
+
+  @Override
+  public int size() { return _size; }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import de.dfki.lt.loot.jada.FibonacciHeapBase.HeapNode;
+
+/** An {@link IntPriorityQueue} on top of {@link FibonacciHeapBase} */
+public class FibonacciIntHeap implements IntPriorityQueue {
+
+  private final FibonacciHeapBase<Integer> _heap;
+
+  /** The heap node of every element in the queue, or null */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private HeapNode<Integer>[] _nodes = new HeapNode[16];
+
+  public FibonacciIntHeap(final IntComparator order) {
+    _heap = new FibonacciHeapBase<Integer>(new Comparator<Integer>() {
+      @Override
+      public int compare(Integer a, Integer b) {
+        return order.compare(a, b);
+      }
+    });
+  }
+
+  @Override
+  public void insert(int element) {
+    if (element >= _nodes.length) {
+      int capacity = Math.max(2 * _nodes.length, element + 1);
+      _nodes = Arrays.copyOf(_nodes, capacity);
+    }
+    if (_nodes[element] != null) {
+      throw new IllegalArgumentException("already in queue: " + element);
+    }
+    _nodes[element] = _heap.insert(element);
+  }
+
+  @Override
+  public void decreaseKey(int element) {
+    _heap.decreaseKey(_nodes[element]);
+  }
+
+  @Override
+  public void remove(int element) {
+    if (! contains(element)) return;
+    _heap.remove(_nodes[element]);
+    _nodes[element] = null;
+  }
+
+  @Override
+  public int extractMin() {
+    int min = minimum();
+    _heap.removeMinimum();
+    _nodes[min] = null;
+    return min;
+  }
+
+  @Override
+  public int minimum() {
+    if (_heap.isEmpty()) {
+      throw new EmptyHeapException("minimum of empty heap");
+    }
+    return _heap.getValue(_heap.minimum());
+  }
+
+  @Override
+  public boolean contains(int element) {
+    return element >= 0 && element < _nodes.length && _nodes[element] != null;
+  }
+
+  @Override
+  public boolean isEmpty() { return _heap.isEmpty(); }
+
+  @Override
+  public int size() { return _heap.size(); }
+}
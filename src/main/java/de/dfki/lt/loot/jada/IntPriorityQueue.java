@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import java.util.function.IntUnaryOperator;
+
+/** An indexed min priority queue over non-negative int elements, e.g., the
+ *  vertices of a graph. The queue does not store priorities itself: they
+ *  are provided from the outside, by an {@link IntComparator} or an int key
+ *  function that looks them up in a distance table. When the priority of an
+ *  element in the queue decreases, {@link #decreaseKey(int)} must be called to
+ *  restore the queue order.
+ *
+ *  The index arrays of the implementations grow with the largest element, so
+ *  the capacity is only a hint.
+ */
+public interface IntPriorityQueue {
+
+  /** Creates queues for elements up to capacity, ordered by order */
+  interface Factory {
+    IntPriorityQueue create(int capacity, IntComparator order);
+  }
+
+  /** The default, an adapter for {@link FibonacciHeapBase} */
+  Factory FIBONACCI = (capacity, order) -> new FibonacciIntHeap(order);
+
+  /** Array based binary heap */
+  Factory BINARY = (capacity, order) -> new DaryIntHeap(capacity, 2, order);
+
+  /** Array based heap with four children per node */
+  Factory QUATERNARY =
+      (capacity, order) -> new DaryIntHeap(capacity, 4, order);
+
+  /** Pairing heap, linked by index arrays */
+  Factory PAIRING = (capacity, order) -> new PairingIntHeap(capacity, order);
+
+  /** Creates queues for elements up to capacity, whose priorities are the
+   *  int keys computed by key
+   */
+  interface KeyFactory {
+    IntPriorityQueue create(int capacity, IntUnaryOperator key);
+  }
+
+  /** Radix heap, for monotone non-negative keys */
+  KeyFactory RADIX = (capacity, key) -> new RadixIntHeap(capacity, key);
+
+  /** Return a factory for Dial's bucket queue, for monotone non-negative keys
+   *  that are at most maxWeight above the last extracted key
+   */
+  static KeyFactory buckets(final int maxWeight) {
+    return (capacity, key) -> new BucketIntQueue(capacity, maxWeight, key);
+  }
+
+  /** Add element, which must not be in the queue already.
+   *
+   * @throws IllegalArgumentException if element is already in the queue
+   */
+  void insert(int element);
+
+  /** Restore the queue order after the priority of element was decreased */
+  void decreaseKey(int element);
+
+  /** Remove element from the queue, if it is in there */
+  void remove(int element);
+
+  /** Remove the element with minimal priority from the queue and return it.
+   *
+   * @throws EmptyHeapException if the queue is empty
+   */
+  int extractMin();
+
+  /** Return the element with minimal priority without removing it.
+   *
+   * @throws EmptyHeapException if the queue is empty
+   */
+  int minimum();
+
+  boolean contains(int element);
+
+  boolean isEmpty();
+
+  int size();
+}
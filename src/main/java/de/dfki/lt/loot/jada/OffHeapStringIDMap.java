@@ -0,0 +1,287 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/** Map strings from and to integer IDs, like an {@link IntIDMap} of strings,
+ *  but with all data outside of the Java heap.
+ *
+ *  The strings are stored as UTF-8 bytes, each preceded by its length, in one
+ *  contiguous arena. An array maps the IDs to the offsets of their strings
+ *  in the arena, and an open-addressed hash table with linear probing maps
+ *  the hash of the bytes to the IDs. All three live in direct byte buffers,
+ *  so the garbage collector only sees a handful of objects, no matter how
+ *  many strings there are.
+ *
+ *  The map can be saved to a file with {@link #save(Path)} and mapped back
+ *  read-only with {@link #map(Path)}, which takes no time since nothing has
+ *  to be read or rehashed. The arena is limited to 2GB.
+ *
+ *  This class is not thread-safe.
+ */
+public class OffHeapStringIDMap {
+
+  private static final int ILLEGAL_VALUE = -1;
+
+  private static final int MAGIC = 0x4c534944; // "LSID"
+
+  private static final int VERSION = 1;
+
+  private static final int HEADER_SIZE = 20;
+
+  /** The strings: int length, followed by the UTF-8 bytes */
+  private ByteBuffer _arena;
+
+  private int _arenaEnd;
+
+  /** The offset of every ID's string in the arena, as int */
+  private ByteBuffer _offsets;
+
+  /** The hash table, ID + 1 for every used slot, zero for free slots. The
+   *  number of slots is a power of two.
+   */
+  private ByteBuffer _table;
+
+  private int _mask;
+
+  private int _size;
+
+  private final boolean _readOnly;
+
+  public OffHeapStringIDMap() {
+    this(1024);
+  }
+
+  public OffHeapStringIDMap(int initialCapacity) {
+    // at least twice as many slots as entries
+    int slots = Integer.highestOneBit(Math.max(initialCapacity, 8)) * 4;
+    _table = ByteBuffer.allocateDirect(4 * slots);
+    _mask = slots - 1;
+    _offsets = ByteBuffer.allocateDirect(4 * Math.max(initialCapacity, 8));
+    _arena = ByteBuffer.allocateDirect(16 * Math.max(initialCapacity, 8));
+    _arenaEnd = 0;
+    _size = 0;
+    _readOnly = false;
+  }
+
+  private OffHeapStringIDMap(ByteBuffer image) throws IOException {
+    if (image.capacity() < HEADER_SIZE || image.getInt(0) != MAGIC) {
+      throw new IOException("not a string id map");
+    }
+    if (image.getInt(4) != VERSION) {
+      throw new IOException("unsupported version " + image.getInt(4));
+    }
+    _size = image.getInt(8);
+    int slots = image.getInt(12);
+    _arenaEnd = image.getInt(16);
+    _mask = slots - 1;
+    int pos = HEADER_SIZE;
+    _offsets = slice(image, pos, 4 * _size);
+    pos += 4 * _size;
+    _table = slice(image, pos, 4 * slots);
+    pos += 4 * slots;
+    _arena = slice(image, pos, _arenaEnd);
+    _readOnly = true;
+  }
+
+  private static ByteBuffer slice(ByteBuffer image, int from, int length)
+      throws IOException {
+    if ((long) from + length > image.capacity()) {
+      throw new IOException("truncated string id map");
+    }
+    ByteBuffer dup = image.duplicate();
+    dup.position(from);
+    dup.limit(from + length);
+    return dup.slice();
+  }
+
+  /** FNV-1a over the bytes, with a final mix for the low bits */
+  private static int hash(byte[] bytes) {
+    int h = 0x811c9dc5;
+    for (byte b : bytes) {
+      h = (h ^ (b & 0xff)) * 0x01000193;
+    }
+    return h ^ (h >>> 16);
+  }
+
+  private int hashAt(int offset) {
+    int length = _arena.getInt(offset);
+    int h = 0x811c9dc5;
+    for (int i = offset + 4; i < offset + 4 + length; ++i) {
+      h = (h ^ (_arena.get(i) & 0xff)) * 0x01000193;
+    }
+    return h ^ (h >>> 16);
+  }
+
+  private boolean equalsAt(int offset, byte[] bytes) {
+    if (_arena.getInt(offset) != bytes.length) return false;
+    offset += 4;
+    for (int i = 0; i < bytes.length; ++i) {
+      if (_arena.get(offset + i) != bytes[i]) return false;
+    }
+    return true;
+  }
+
+  /** Return the slot of bytes, or the free slot where it belongs */
+  private int findSlot(byte[] bytes) {
+    int slot = hash(bytes) & _mask;
+    while (true) {
+      int entry = _table.getInt(4 * slot);
+      if (entry == 0
+          || equalsAt(_offsets.getInt(4 * (entry - 1)), bytes)) {
+        return slot;
+      }
+      slot = (slot + 1) & _mask;
+    }
+  }
+
+  /** Return buf, or a bigger copy of its first used bytes if it has less
+   *  than needed bytes
+   */
+  private static ByteBuffer grow(ByteBuffer buf, int used, int needed) {
+    if (needed < 0) {
+      throw new IllegalStateException("string id map is full");
+    }
+    if (needed <= buf.capacity()) return buf;
+    long capacity = Math.max(2L * buf.capacity(), needed);
+    capacity = Math.min(Integer.MAX_VALUE, capacity);
+    ByteBuffer result = ByteBuffer.allocateDirect((int) capacity);
+    result.put(section(buf, used));
+    result.clear();
+    return result;
+  }
+
+  private void rehash() {
+    int slots = 2 * (_mask + 1);
+    _table = ByteBuffer.allocateDirect(4 * slots);
+    _mask = slots - 1;
+    for (int id = 0; id < _size; ++id) {
+      int slot = hashAt(_offsets.getInt(4 * id)) & _mask;
+      while (_table.getInt(4 * slot) != 0) {
+        slot = (slot + 1) & _mask;
+      }
+      _table.putInt(4 * slot, id + 1);
+    }
+  }
+
+  /** Return the ID of string, registering it if it is not known yet.
+   *
+   * @throws UnsupportedOperationException if string is new and the map was
+   *         mapped from a file
+   */
+  public int register(String string) {
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    int slot = findSlot(bytes);
+    int entry = _table.getInt(4 * slot);
+    if (entry != 0) return entry - 1;
+    if (_readOnly) {
+      throw new UnsupportedOperationException("string id map is read-only");
+    }
+    int offset = _arenaEnd;
+    _arena = grow(_arena, _arenaEnd, _arenaEnd + 4 + bytes.length);
+    _arena.putInt(offset, bytes.length);
+    ByteBuffer dup = _arena.duplicate();
+    dup.position(offset + 4);
+    dup.put(bytes);
+    _arenaEnd += 4 + bytes.length;
+    _offsets = grow(_offsets, 4 * _size, 4 * (_size + 1));
+    _offsets.putInt(4 * _size, offset);
+    int id = _size++;
+    _table.putInt(4 * slot, id + 1);
+    if (2 * _size > _mask + 1) {
+      rehash();
+    }
+    return id;
+  }
+
+  /** Return the ID of string, or -1 if it is not registered */
+  public int getId(String string) {
+    int entry =
+        _table.getInt(4 * findSlot(string.getBytes(StandardCharsets.UTF_8)));
+    return entry - 1;
+  }
+
+  public boolean contains(String string) {
+    return getId(string) != ILLEGAL_VALUE;
+  }
+
+  /** Return the string with the given ID, or null if there is none */
+  public String fromId(int id) {
+    if (id < 0 || id >= _size) return null;
+    int offset = _offsets.getInt(4 * id);
+    byte[] bytes = new byte[_arena.getInt(offset)];
+    ByteBuffer dup = _arena.duplicate();
+    dup.position(offset + 4);
+    dup.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  public int size() { return _size; }
+
+  /** Return the number of bytes used for the strings */
+  public int getArenaSize() { return _arenaEnd; }
+
+  /** Save the map to path, from where it can be mapped with
+   *  {@link #map(Path)}
+   */
+  public void save(Path path) throws IOException {
+    try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      header.putInt(MAGIC).putInt(VERSION).putInt(_size).putInt(_mask + 1)
+          .putInt(_arenaEnd);
+      header.flip();
+      write(out, header);
+      write(out, section(_offsets, 4 * _size));
+      write(out, section(_table, 4 * (_mask + 1)));
+      write(out, section(_arena, _arenaEnd));
+    }
+  }
+
+  private static ByteBuffer section(ByteBuffer buf, int length) {
+    ByteBuffer dup = buf.duplicate();
+    dup.position(0);
+    dup.limit(length);
+    return dup;
+  }
+
+  private static void write(FileChannel out, ByteBuffer buf)
+      throws IOException {
+    while (buf.hasRemaining()) {
+      out.write(buf);
+    }
+  }
+
+  /** Map a file written by {@link #save(Path)} read-only into memory. New
+   *  strings can not be registered in the result. The file must not be
+   *  modified while it is mapped.
+   */
+  public static OffHeapStringIDMap map(Path path) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.READ)) {
+      // the mapping stays valid after the channel is closed
+      return new OffHeapStringIDMap(
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+}
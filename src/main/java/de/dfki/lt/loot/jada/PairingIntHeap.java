@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import java.util.Arrays;
+
+/** An indexed pairing heap, with the tree links kept in int arrays instead of
+ *  node objects. Insertion and decreaseKey are constant time, extractMin
+ *  is amortized logarithmic, using the two-pass pairing strategy.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class PairingIntHeap implements IntPriorityQueue {
+
+  private static final int NONE = -1, ABSENT = -2;
+
+  private final IntComparator _order;
+
+  /** The leftmost child of every element, or NONE */
+  private int[] _child;
+
+  /** The right sibling of every element, or NONE */
+  private int[] _next;
+
+  /** The left sibling, or the parent for a leftmost child, NONE for the root,
+   *  and ABSENT for elements not in the queue
+   */
+  private int[] _prev;
+
+  private int _root = NONE;
+
+  private int _size = 0;
+
+  /** Scratch list for the first pass of the pairing */
+  private int[] _pairs = new int[16];
+
+  public PairingIntHeap(int capacity, IntComparator order) {
+    capacity = Math.max(capacity, 8);
+    _order = order;
+    _child = new int[capacity];
+    _next = new int[capacity];
+    _prev = new int[capacity];
+    Arrays.fill(_prev, ABSENT);
+  }
+
+  private void ensureElement(int element) {
+    if (element >= _prev.length) {
+      int old = _prev.length;
+      int capacity = Math.max(2 * old, element + 1);
+      _child = Arrays.copyOf(_child, capacity);
+      _next = Arrays.copyOf(_next, capacity);
+      _prev = Arrays.copyOf(_prev, capacity);
+      Arrays.fill(_prev, old, capacity, ABSENT);
+    }
+  }
+
+  /** Link two detached trees and return the root of the result */
+  private int link(int a, int b) {
+    if (_order.compare(b, a) < 0) {
+      int h = a; a = b; b = h;
+    }
+    // b becomes the leftmost child of a
+    int c = _child[a];
+    _next[b] = c;
+    if (c != NONE) _prev[c] = b;
+    _prev[b] = a;
+    _child[a] = b;
+    return a;
+  }
+
+  /** Detach the (non-root) tree of element from its parent and siblings */
+  private void cut(int element) {
+    int p = _prev[element];
+    int n = _next[element];
+    if (_child[p] == element) {
+      _child[p] = n;
+    } else {
+      _next[p] = n;
+    }
+    if (n != NONE) _prev[n] = p;
+    _prev[element] = NONE;
+    _next[element] = NONE;
+  }
+
+  /** Merge the sibling list starting with first into one tree and return its
+   *  root, or NONE if the list is empty
+   */
+  private int mergePairs(int first) {
+    if (first == NONE) return NONE;
+    int n = 0;
+    while (first != NONE) {
+      int a = first;
+      int b = _next[a];
+      first = (b == NONE) ? NONE : _next[b];
+      _prev[a] = _next[a] = NONE;
+      if (b != NONE) {
+        _prev[b] = _next[b] = NONE;
+        a = link(a, b);
+      }
+      if (n == _pairs.length) _pairs = Arrays.copyOf(_pairs, 2 * n);
+      _pairs[n++] = a;
+    }
+    int result = _pairs[--n];
+    while (n > 0) {
+      result = link(_pairs[--n], result);
+    }
+    return result;
+  }
+
+  @Override
+  public void insert(int element) {
+    ensureElement(element);
+    if (_prev[element] != ABSENT) {
+      throw new IllegalArgumentException("already in queue: " + element);
+    }
+    _child[element] = _next[element] = _prev[element] = NONE;
+    _root = (_root == NONE) ? element : link(_root, element);
+    ++_size;
+  }
+
+  @Override
+  public void decreaseKey(int element) {
+    if (element == _root) return;
+    cut(element);
+    _root = link(_root, element);
+  }
+
+  @Override
+  public void remove(int element) {
+    if (! contains(element)) return;
+    if (element == _root) {
+      extractMin();
+      return;
+    }
+    cut(element);
+    int sub = mergePairs(_child[element]);
+    if (sub != NONE) _root = link(_root, sub);
+    _prev[element] = ABSENT;
+    --_size;
+  }
+
+  @Override
+  public int extractMin() {
+    int min = minimum();
+    _root = mergePairs(_child[min]);
+    _prev[min] = ABSENT;
+    --_size;
+    return min;
+  }
+
+  @Override
+  public int minimum() {
+    if (_root == NONE) throw new EmptyHeapException("minimum of empty heap");
+    return _root;
+  }
+
+  @Override
+  public boolean contains(int element) {
+    return element >= 0 && element < _prev.length && _prev[element] != ABSENT;
+  }
+
+  @Override
+  public boolean isEmpty() { return _size == 0; }
+
+  @Override
+  public int size() { return _size; }
+}
@@ -16,13 +16,27 @@
 
 package de.dfki.lt.loot.jada;
 
+import gnu.trove.list.array.TIntArrayList;
+
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.function.IntPredicate;
 
 /** A union-find data structure to effectively store a partition of a set with
  *  n members
+ *
+ *  The set can grow with {@link #addElement()}. Unions and added elements can
+ *  be undone with {@link #checkpoint()} and {@link #rollback(int)}, e.g., for
+ *  backtracking search. While a checkpoint is open, path compression is
+ *  switched off, so that a union can be undone by resetting one tree link;
+ *  union by size still keeps the trees logarithmic. {@link #commit()} drops
+ *  all checkpoints and switches path compression on again.
  */
 public class Partition {
 
+  /** Marks an added element in the undo log */
+  private static final int ADDED = -1;
+
   /** The size of the partition, only correct for the representatives */
   private int[] size;
 
@@ -41,6 +55,18 @@ public class Partition {
   private int[] members;
   private int[] membersLast;
 
+  /** The number of elements */
+  private int n;
+
+  /** The number of equivalence classes */
+  private int classes;
+
+  /** The undo log, two ints per operation: the root that was merged and the
+   *  tail of the other class's member list before the union, or ADDED and
+   *  the added element. null if there is no open checkpoint.
+   */
+  private TIntArrayList log;
+
   /** Create a partition of n elements with each element is its own partition */
   public Partition(int n) {
     tree = new int[n];
@@ -53,10 +79,19 @@ public class Partition {
       membersLast[i] = i;
       size[i] = 1;
     }
+    this.n = n;
+    classes = n;
+    log = null;
   }
 
   /** Find the representative of an equivalence class, doing path compression */
   public int findRepresentative (int a) {
+    if (log != null) {
+      // no path compression, unions must stay undoable
+      while (tree[a] != a)
+        a = tree[a];
+      return a;
+    }
     while (tree[a] != tree[tree[a]])
       a = tree[a] = tree[tree[a]];
     return tree[a];
@@ -83,9 +118,97 @@ public class Partition {
     int tailB = membersLast[b];
     members[tailB] = a;
     membersLast[b] = membersLast[a];
+    --classes;
+    if (log != null) {
+      log.add(a);
+      log.add(tailB);
+    }
     return b;
   }
 
+  /** Merge the equivalence classes of a[i] and b[i] for all i and return the
+   *  number of merges that took place.
+   *
+   * @throws IllegalArgumentException if a and b differ in length
+   */
+  public int unionAll(int[] a, int[] b) {
+    if (a.length != b.length) {
+      throw new IllegalArgumentException(
+          "arrays of different length: " + a.length + " " + b.length);
+    }
+    int before = classes;
+    for (int i = 0; i < a.length; ++i) {
+      union(a[i], b[i]);
+    }
+    return before - classes;
+  }
+
+  /** Add a new element in a singleton class and return it. The arrays grow
+   *  by doubling, so this takes amortized constant time.
+   */
+  public int addElement() {
+    if (n == tree.length) {
+      int capacity = Math.max(2 * n, 8);
+      tree = Arrays.copyOf(tree, capacity);
+      members = Arrays.copyOf(members, capacity);
+      membersLast = Arrays.copyOf(membersLast, capacity);
+      size = Arrays.copyOf(size, capacity);
+    }
+    int elt = n++;
+    tree[elt] = elt;
+    members[elt] = elt;
+    membersLast[elt] = elt;
+    size[elt] = 1;
+    ++classes;
+    if (log != null) {
+      log.add(ADDED);
+      log.add(elt);
+    }
+    return elt;
+  }
+
+  /** Open a checkpoint and return it, to be passed to {@link #rollback(int)}.
+   *  Checkpoints can be nested.
+   */
+  public int checkpoint() {
+    if (log == null) {
+      log = new TIntArrayList();
+    }
+    return log.size();
+  }
+
+  /** Undo all unions and added elements since checkpoint. The checkpoint
+   *  stays open, and so do the checkpoints taken before it.
+   *
+   * @throws IllegalStateException if checkpoint is not open (anymore)
+   */
+  public void rollback(int checkpoint) {
+    if (log == null || checkpoint < 0 || checkpoint > log.size()) {
+      throw new IllegalStateException("no such checkpoint: " + checkpoint);
+    }
+    while (log.size() > checkpoint) {
+      int tailB = log.removeAt(log.size() - 1);
+      int a = log.removeAt(log.size() - 1);
+      if (a == ADDED) {
+        // tailB is the added element, which must be the last one
+        --n;
+        --classes;
+      } else {
+        int b = tree[a];
+        tree[a] = a;
+        size[b] -= size[a];
+        members[tailB] = tailB;
+        membersLast[b] = tailB;
+        ++classes;
+      }
+    }
+  }
+
+  /** Drop all checkpoints, the changes since then become permanent */
+  public void commit() {
+    log = null;
+  }
+
   /** Are a and b in the same equivalence class? */
   public boolean equiv(int a, int b) {
     return findRepresentative(a) == findRepresentative(b);
@@ -129,6 +252,44 @@ public class Partition {
   }
 
   public int size() {
-    return members.length;
+    return n;
+  }
+
+  /** Return the number of equivalence classes */
+  public int getNumberOfClasses() {
+    return classes;
+  }
+
+  /** Return dense class labels for all elements: label[i] == label[j] iff i
+   *  and j are equivalent. The labels are numbered from zero in the order of
+   *  the smallest element of each class.
+   */
+  public int[] compactLabels() {
+    return compactLabels(null);
+  }
+
+  /** Return dense class labels like {@link #compactLabels()}, but only for
+   *  the elements accepted by filter, all others get the label -1. Classes
+   *  without accepted elements get no label. A null filter accepts all
+   *  elements.
+   */
+  public int[] compactLabels(IntPredicate filter) {
+    int[] label = new int[n];
+    // the label of every representative, -1 if not assigned yet
+    int[] classLabel = new int[n];
+    Arrays.fill(classLabel, -1);
+    int next = 0;
+    for (int i = 0; i < n; ++i) {
+      if (filter != null && ! filter.test(i)) {
+        label[i] = -1;
+        continue;
+      }
+      int rep = findRepresentative(i);
+      if (classLabel[rep] < 0) {
+        classLabel[rep] = next++;
+      }
+      label[i] = classLabel[rep];
+    }
+    return label;
   }
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/** An indexed radix heap for non-negative int keys that are monotone: no key
+ *  may be smaller than the key of the last extracted element, which is the
+ *  case for Dijkstra's algorithm with non-negative weights.
+ *
+ *  The elements are kept in 33 buckets, where bucket i holds the elements
+ *  whose key differs from the last extracted key first in bit i - 1, so an
+ *  element moves to lower buckets at most 32 times. The keys are read from
+ *  the key function when an element is inserted or its key decreased, and
+ *  cached.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class RadixIntHeap implements IntPriorityQueue {
+
+  private static final int NONE = -1, ABSENT = -2;
+
+  private static final int BUCKETS = 33;
+
+  private final IntUnaryOperator _keyFunction;
+
+  /** The cached key of every element */
+  private int[] _keys;
+
+  /** The doubly linked bucket lists */
+  private int[] _next, _prev;
+
+  /** The bucket of every element, or ABSENT */
+  private int[] _bucket;
+
+  private final int[] _heads = new int[BUCKETS];
+
+  /** The key of the last extracted element */
+  private int _last = 0;
+
+  private int _size = 0;
+
+  /** A heap for elements in [0, capacity[, whose keys are computed by key */
+  public RadixIntHeap(int capacity, IntUnaryOperator key) {
+    capacity = Math.max(capacity, 8);
+    _keyFunction = key;
+    _keys = new int[capacity];
+    _next = new int[capacity];
+    _prev = new int[capacity];
+    _bucket = new int[capacity];
+    Arrays.fill(_bucket, ABSENT);
+    Arrays.fill(_heads, NONE);
+  }
+
+  private void ensureElement(int element) {
+    if (element >= _bucket.length) {
+      int old = _bucket.length;
+      int capacity = Math.max(2 * old, element + 1);
+      _keys = Arrays.copyOf(_keys, capacity);
+      _next = Arrays.copyOf(_next, capacity);
+      _prev = Arrays.copyOf(_prev, capacity);
+      _bucket = Arrays.copyOf(_bucket, capacity);
+      Arrays.fill(_bucket, old, capacity, ABSENT);
+    }
+  }
+
+  private int bucketOf(int key) {
+    return key == _last ? 0 : 32 - Integer.numberOfLeadingZeros(key ^ _last);
+  }
+
+  private void link(int element, int bucket) {
+    int head = _heads[bucket];
+    _next[element] = head;
+    _prev[element] = NONE;
+    if (head != NONE) _prev[head] = element;
+    _heads[bucket] = element;
+    _bucket[element] = bucket;
+  }
+
+  private void unlink(int element) {
+    int p = _prev[element], n = _next[element];
+    if (p == NONE) {
+      _heads[_bucket[element]] = n;
+    } else {
+      _next[p] = n;
+    }
+    if (n != NONE) _prev[n] = p;
+    _bucket[element] = ABSENT;
+  }
+
+  /** Read the key of element and check that it is monotone */
+  private int key(int element) {
+    int key = _keyFunction.applyAsInt(element);
+    if (key < _last) {
+      throw new IllegalArgumentException("key " + key + " of " + element
+          + " is smaller than the last minimum " + _last);
+    }
+    return key;
+  }
+
+  @Override
+  public void insert(int element) {
+    ensureElement(element);
+    if (_bucket[element] != ABSENT) {
+      throw new IllegalArgumentException("already in queue: " + element);
+    }
+    int key = key(element);
+    _keys[element] = key;
+    link(element, bucketOf(key));
+    ++_size;
+  }
+
+  @Override
+  public void decreaseKey(int element) {
+    int key = key(element);
+    _keys[element] = key;
+    int bucket = bucketOf(key);
+    if (bucket != _bucket[element]) {
+      unlink(element);
+      link(element, bucket);
+    }
+  }
+
+  @Override
+  public void remove(int element) {
+    if (! contains(element)) return;
+    unlink(element);
+    --_size;
+  }
+
+  @Override
+  public int minimum() {
+    if (_size == 0) throw new EmptyHeapException("minimum of empty heap");
+    if (_heads[0] == NONE) {
+      // redistribute the first non-empty bucket around its minimal key
+      int i = 1;
+      while (_heads[i] == NONE) ++i;
+      int min = _heads[i];
+      for (int e = _next[min]; e != NONE; e = _next[e]) {
+        if (_keys[e] < _keys[min]) min = e;
+      }
+      _last = _keys[min];
+      int e = _heads[i];
+      _heads[i] = NONE;
+      while (e != NONE) {
+        int n = _next[e];
+        link(e, bucketOf(_keys[e]));
+        e = n;
+      }
+    }
+    return _heads[0];
+  }
+
+  @Override
+  public int extractMin() {
+    int min = minimum();
+    unlink(min);
+    --_size;
+    return min;
+  }
+
+  @Override
+  public boolean contains(int element) {
+    return element >= 0 && element < _bucket.length
+        && _bucket[element] != ABSENT;
+  }
+
+  @Override
+  public boolean isEmpty() { return _size == 0; }
+
+  @Override
+  public int size() { return _size; }
+}
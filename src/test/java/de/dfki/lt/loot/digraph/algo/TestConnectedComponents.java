@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.digraph.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.dfki.lt.loot.digraph.DiGraph;
+import de.dfki.lt.loot.digraph.UndirectedGraph;
+
+public class TestConnectedComponents {
+
+  @Test
+  public void testUndirected() {
+    UndirectedGraph<String> g = new UndirectedGraph<String>();
+    for (int i = 0; i < 7; ++i) g.newVertex();
+    g.newEdge("a", 6, 2);
+    g.newEdge("b", 1, 4);
+    g.newEdge("c", 4, 0);
+    ConnectedComponents cc = ConnectedComponents.compute(g);
+    assertEquals(4, cc.getNumberOfComponents());
+    assertArrayEquals(new int[]{ 0, 0, 1, 2, 0, 3, 1 }, cc.getLabels());
+    assertArrayEquals(new int[]{ 3, 2, 1, 1 }, cc.getSizes());
+    assertArrayEquals(new int[]{ 2, 6 }, cc.getComponents()[1]);
+  }
+
+  @Test
+  public void testDeletedVertex() {
+    DiGraph<String> g = new DiGraph<String>(5);
+    g.newEdge("a", 0, 1);
+    g.newEdge("b", 1, 2);
+    g.newEdge("c", 3, 4);
+    g.removeVertexLazy(1);
+    g.cleanupEdges();
+    ConnectedComponents cc = ConnectedComponents.compute(g);
+    assertEquals(-1, cc.getLabel(1));
+    assertArrayEquals(new int[]{ 0, -1, 1, 2, 2 }, cc.getLabels());
+    assertArrayEquals(cc.getLabels(),
+        ConnectedComponents.computeParallel(g, 2).getLabels());
+  }
+
+  @Test
+  public void testParallel() {
+    Random r = new Random(5);
+    int n = 20000;
+    DiGraph<Integer> g = new DiGraph<Integer>(n);
+    for (int i = 0; i < n * 3 / 4; ++i) {
+      g.newEdge(i, r.nextInt(n), r.nextInt(n));
+    }
+    ConnectedComponents seq = ConnectedComponents.compute(g);
+    ConnectedComponents par = ConnectedComponents.computeParallel(g, 4);
+    assertArrayEquals(seq.getLabels(), par.getLabels());
+    assertArrayEquals(seq.getSizes(), par.getSizes());
+    int total = 0;
+    for (int size : seq.getSizes()) total += size;
+    assertEquals(n, total);
+  }
+}
@@ -24,12 +24,15 @@ import static org.junit.Assert.assertEquals;
 import java.io.IOException;
 import java.io.StringReader;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 
 import de.dfki.lt.loot.digraph.*;
 import de.dfki.lt.loot.digraph.io.SimpleDotPrinter;
 import de.dfki.lt.loot.digraph.weighted.IntMonoid;
+import de.dfki.lt.loot.digraph.weighted.OrderedMonoid;
+import de.dfki.lt.loot.jada.IntPriorityQueue;
 
 /**
  * <code>DirectedGraphTest</code> is a test class for
@@ -47,6 +50,11 @@ public class TestDijkstraShortestPath {
    * not used here
    */
   public void testDijkstra(Graph<Integer> graph, String in, String[] res) throws IOException {
+    testDijkstra(graph, in, res, IntPriorityQueue.FIBONACCI);
+  }
+
+  public void testDijkstra(Graph<Integer> graph, String in, String[] res,
+      IntPriorityQueue.Factory queues) throws IOException {
     // read in graph
     readEdgeWeightGraph(new StringReader(in), graph);
 
@@ -55,7 +63,7 @@ public class TestDijkstraShortestPath {
 
     // use DFS with special visitor
     DijkstraShortestPath<Integer, Integer> algorithm =
-      new DijkstraShortestPath<Integer, Integer>();
+      new DijkstraShortestPath<Integer, Integer>(queues);
 
     List<Edge<Integer>> result =
       algorithm.shortestPath(graph, 0, graph.getNumberOfVertices() - 1,
@@ -107,4 +115,58 @@ public class TestDijkstraShortestPath {
     String[] res = { "t", "u" };
     testDijkstra(new UndirectedGraph<Integer>(), exampleUndirGraphWeightedEdges, res);
   }
+
+  /**
+   * Use the other priority queues
+   */
+  @Test
+  public void testDijkstraQueues() throws IOException {
+    String[] res = { "w", "q", "x", "u" };
+    for (IntPriorityQueue.Factory queues : new IntPriorityQueue.Factory[] {
+        IntPriorityQueue.BINARY, IntPriorityQueue.QUATERNARY,
+        IntPriorityQueue.PAIRING }) {
+      testDijkstra(new DiGraph<Integer>(), exampleGraphWeightedEdges, res,
+          queues);
+    }
+  }
+
+  /**
+   * Compare the int key queues to the default on a random graph
+   */
+  @Test
+  public void testDijkstraIntWeights() {
+    Random r = new Random(3);
+    int n = 2000;
+    DiGraph<Integer> graph = new DiGraph<Integer>(n);
+    for (int i = 0; i < 5 * n; ++i) {
+      graph.newEdge(r.nextInt(20), r.nextInt(n), r.nextInt(n));
+    }
+    DijkstraShortestPath<Integer, Integer> fib =
+        new DijkstraShortestPath<Integer, Integer>();
+    fib.shortestPath(graph, 0, new IntMonoid(), (edge) -> edge.getInfo());
+    List<DijkstraShortestPath<Integer, Integer>> algorithms = List.of(
+        DijkstraShortestPath.forIntWeights(19),
+        DijkstraShortestPath.forIntWeights(1 << 20),
+        new DijkstraShortestPath<Integer, Integer>(IntPriorityQueue.RADIX));
+    for (DijkstraShortestPath<Integer, Integer> algorithm : algorithms) {
+      algorithm.shortestPath(graph, 0, new IntMonoid(),
+          (edge) -> edge.getInfo());
+      for (int v = 0; v < n; ++v) {
+        assertEquals(fib.getDistance().get(v), algorithm.getDistance().get(v));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDijkstraIntWeightsNeedIntMonoid() {
+    DiGraph<Integer> graph = new DiGraph<Integer>(2);
+    graph.newEdge(1, 0, 1);
+    OrderedMonoid<Integer> ops = new OrderedMonoid<Integer>() {
+      public Integer add(Integer w1, Integer w2) { return w1 + w2; }
+      public int compare(Integer w1, Integer w2) { return w1 - w2; }
+      public Integer getZero() { return 0; }
+    };
+    DijkstraShortestPath.<Integer>forIntWeights(1)
+        .shortestPath(graph, 0, ops, (edge) -> edge.getInfo());
+  }
 }
\ No newline at end of file
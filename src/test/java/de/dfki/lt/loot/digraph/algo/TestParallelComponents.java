@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.digraph.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.dfki.lt.loot.digraph.DiGraph;
+import de.dfki.lt.loot.digraph.UndirectedGraph;
+import de.dfki.lt.loot.jada.ConcurrentPartition;
+import de.dfki.lt.loot.jada.Partition;
+
+public class TestParallelComponents {
+
+  @Test
+  public void testSmall() {
+    UndirectedGraph<String> g = new UndirectedGraph<String>();
+    for (int i = 0; i < 6; ++i) g.newVertex();
+    g.newEdge("a", 0, 4);
+    g.newEdge("b", 5, 2);
+    g.newEdge("c", 4, 3);
+    ConcurrentPartition p = ParallelComponents.connect(g, 2);
+    assertArrayEquals(new int[]{ 0, 1, 2, 0, 0, 2 }, p.compactLabels());
+  }
+
+  @Test
+  public void testRandom() {
+    Random r = new Random(11);
+    int n = 50000;
+    UndirectedGraph<Integer> g = new UndirectedGraph<Integer>();
+    for (int i = 0; i < n; ++i) g.newVertex();
+    Partition expected = new Partition(n);
+    for (int i = 0; i < n / 2; ++i) {
+      int from = r.nextInt(n), to = r.nextInt(n);
+      g.newEdge(i, from, to);
+      expected.union(from, to);
+    }
+    for (int threads = 1; threads <= 4; ++threads) {
+      assertArrayEquals(expected.compactLabels(),
+          ParallelComponents.connect(g, threads).compactLabels());
+    }
+  }
+
+  @Test
+  public void testWeaklyConnected() {
+    DiGraph<String> g = new DiGraph<String>(5);
+    g.newEdge("a", 3, 1);
+    g.newEdge("b", 4, 1);
+    ConcurrentPartition p = ParallelComponents.connect(g, 3);
+    assertArrayEquals(new int[]{ 0, 1, 2, 1, 1 }, p.compactLabels());
+  }
+}
@@ -19,15 +19,23 @@ package de.dfki.lt.loot.fsa;
 import static de.dfki.lt.loot.digraph.Utils.*;
 import static de.dfki.lt.loot.digraph.io.GraphPrinterFactory.*;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
 
+import de.dfki.lt.loot.digraph.CyclicGraphException;
+import de.dfki.lt.loot.digraph.Edge;
+
 /**
  * {@link TestCharFsa} is a test class for {@link CharFsa}.
  *
@@ -348,6 +356,25 @@ public class TestCharFsa {
            Paths.get("src/test/resources/fsa/top10000de.txt").toString()));
  }
 
+ /** Test readLexiconAutomaton with a sorted file, which is streamed
+  */
+ @Test
+ public void testReadSortedLexicon() throws IOException {
+   List<String> lex = CharFsa.readLexicon(
+       Paths.get("src/test/resources/fsa/top10000de.txt").toString());
+   Collections.sort(lex);
+   Path sorted = Files.createTempFile("lexicon", ".txt");
+   try {
+     Files.write(sorted, lex, StandardCharsets.ISO_8859_1);
+     CharFsa auto1 = CharFsa.readLexiconAutomaton(sorted.toString());
+     assertTrue(auto1.checkLexicon(lex));
+     assertEquals(CharFsa.lexiconAutomaton(lex).getNumberOfActiveVertices(),
+         auto1.getNumberOfActiveVertices());
+   } finally {
+     Files.delete(sorted);
+   }
+ }
+
  /** Test readLexicon2
   */
  @Test
@@ -360,4 +387,52 @@ public class TestCharFsa {
    assertTrue(auto1.checkLexicon(lex));
  }
 
+ /** Test wordToIndex and indexToWord
+  */
+ @Test
+ public void testWordNumbering() throws IOException, CyclicGraphException {
+   List<String> lex = new ArrayList<String>(
+       CharFsa.readLexicon(
+           Paths.get("src/test/resources/fsa/top10000de.txt").toString()));
+   CharFsa auto1 = CharFsa.lexiconAutomaton(lex);
+   auto1.computeWordCounts();
+   Collections.sort(lex);
+   List<String> sorted = new ArrayList<String>();
+   for (String word : lex) {
+     if (sorted.isEmpty() || ! sorted.get(sorted.size() - 1).equals(word)) {
+       sorted.add(word);
+     }
+   }
+   assertEquals(sorted.size(), auto1.getNumberOfWords());
+   for (int i = 0; i < sorted.size(); ++i) {
+     assertEquals(i, auto1.wordToIndex(sorted.get(i)));
+     assertEquals(sorted.get(i), auto1.indexToWord(i));
+   }
+   assertEquals(-1, auto1.wordToIndex("xyzzyx"));
+   assertEquals(null, auto1.indexToWord(sorted.size()));
+ }
+
+ /** Test the Glushkov construction
+  */
+ @Test
+ public void testGlushkov() {
+   String[] regexes = { "X*", "(a|b)*abb", "a*b*c*", "([a-c]a[a-c])*bab*",
+       "x|yz*", "(ab|c)*" };
+   // the number of characters and character sets
+   int[] positions = { 1, 5, 3, 6, 3, 3 };
+   for (int i = 0; i < regexes.length; ++i) {
+     CharFsa thompson = CharFsa.compileRegex(regexes[i]);
+     CharFsa glushkov = CharFsa.compileRegex(regexes[i],
+         CharFsa.RegexConstruction.GLUSHKOV);
+     assertEquals(regexes[i], positions[i] + 1,
+         glushkov.getNumberOfActiveVertices());
+     for (int v : glushkov) {
+       for (Edge<Character> e : glushkov.getOutEdges(v)) {
+         assertFalse(glushkov.isEpsilon(e.getInfo()));
+       }
+     }
+     assertTrue(regexes[i], glushkov.isEquivalent(thompson));
+   }
+ }
+
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.dfki.lt.loot.digraph.Edge;
+import de.dfki.lt.loot.fsa.algo.EpsilonRemoval;
+
+/**
+ * {@link TestEpsilonRemoval} is a test class for {@link EpsilonRemoval}.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class TestEpsilonRemoval {
+
+  private static boolean hasEpsilons(CharFsa fsa) {
+    for (int v : fsa) {
+      for (Edge<Character> e : fsa.getOutEdges(v)) {
+        if (fsa.isEpsilon(e.getInfo())) return true;
+      }
+    }
+    return false;
+  }
+
+  @Test
+  public void testClosuresWithCycle() {
+    // 0 -e-> 1 -e-> 2 -e-> 1, 2 -a-> 3
+    CharFsa fsa = new CharFsa();
+    for (int i = 0; i < 4; ++i) fsa.newVertex();
+    fsa.setInitialState(0);
+    fsa.newEdge(null, 0, 1);
+    fsa.newEdge(null, 1, 2);
+    fsa.newEdge(null, 2, 1);
+    fsa.newEdge('a', 2, 3);
+    fsa.setFinalState(3);
+    int[][] closures = EpsilonRemoval.epsilonClosures(fsa);
+    assertArrayEquals(new int[]{ 0, 1, 2 }, closures[0]);
+    assertArrayEquals(new int[]{ 1, 2 }, closures[1]);
+    assertArrayEquals(new int[]{ 1, 2 }, closures[2]);
+    assertArrayEquals(new int[]{ 3 }, closures[3]);
+  }
+
+  @Test
+  public void testRemoveEpsilons() {
+    String[] regexes = { "(a|b)*abb", "a*b*c*", "([a-c]a[a-c])*bab*", "x|yz*" };
+    for (String regex : regexes) {
+      CharFsa nfa = CharFsa.compileRegex(regex);
+      CharFsa result = new CharFsa();
+      EpsilonRemoval.removeEpsilons(nfa, nfa.getComparator(), result);
+      assertFalse(regex, hasEpsilons(result));
+      assertTrue(regex, result.isEquivalent(nfa));
+      assertTrue(regex, result.getNumberOfActiveVertices()
+          <= nfa.getNumberOfActiveVertices());
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.dfki.lt.loot.fsa.algo.Determinization;
+import de.dfki.lt.loot.fsa.algo.Equivalence;
+
+/**
+ * {@link TestEquivalence} is a test class for {@link Equivalence}.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class TestEquivalence {
+
+  @Test
+  public void testEquivalent() {
+    CharFsa nfa = CharFsa.compileRegex("(a|b)*abb");
+    CharFsa dfa = new CharFsa();
+    Determinization.determinize(nfa, nfa.getComparator(), dfa);
+    assertNull(Equivalence.findCounterexample(nfa, dfa, nfa.getComparator()));
+    assertTrue(dfa.isEquivalent(nfa));
+  }
+
+  @Test
+  public void testCounterexample() {
+    CharFsa one = CharFsa.compileRegex("ab*");
+    CharFsa two = CharFsa.compileRegex("ab*|b");
+    List<Character> word =
+        Equivalence.findCounterexample(one, two, one.getComparator());
+    assertEquals(Arrays.asList('b'), word);
+    assertFalse(one.isEquivalent(two));
+    assertFalse(two.isEquivalent(one));
+  }
+
+  @Test
+  public void testShortestCounterexample() {
+    CharFsa one = CharFsa.compileRegex("[ab]*ba");
+    CharFsa two = CharFsa.compileRegex("[ab]*ba[ab]*");
+    List<Character> word =
+        Equivalence.findCounterexample(one, two, one.getComparator());
+    // baa or bab
+    assertEquals(3, word.size());
+    StringBuilder sb = new StringBuilder();
+    for (char c : word) sb.append(c);
+    String w = sb.toString();
+    CharFsa det = new CharFsa();
+    Determinization.determinize(two, two.getComparator(), det);
+    assertTrue(det.deterministicMatch(w));
+    assertTrue(w.startsWith("ba"));
+    assertTrue(one.isSubsetOf(two));
+  }
+
+  @Test
+  public void testInclusion() {
+    CharFsa small = CharFsa.compileRegex("ab");
+    CharFsa big = CharFsa.compileRegex("a[bc]");
+    assertTrue(small.isSubsetOf(big));
+    assertFalse(big.isSubsetOf(small));
+    assertEquals(Arrays.asList('a', 'c'),
+        Equivalence.findInclusionCounterexample(big, small,
+            big.getComparator()));
+  }
+
+  @Test(timeout = 10000)
+  public void testLazyDeterminization() {
+    // the determinization of this has 2^21 states
+    StringBuilder sb = new StringBuilder("(a|b)*a");
+    for (int i = 0; i < 20; ++i) sb.append("(a|b)");
+    CharFsa one = CharFsa.compileRegex(sb.toString());
+    CharFsa two = CharFsa.compileRegex(sb.toString() + "|c");
+    assertEquals(Arrays.asList('c'),
+        Equivalence.findCounterexample(one, two, one.getComparator()));
+    assertEquals(Arrays.asList('c'),
+        Equivalence.findInclusionCounterexample(two, one,
+            two.getComparator()));
+  }
+
+  @Test
+  public void testNonDeterministic() {
+    // neither of the two is determinized in advance
+    CharFsa one = CharFsa.compileRegex("(a|b)*a(a|b)(a|b)");
+    CharFsa two = CharFsa.compileRegex("(a|b)*(aaa|aab|aba|abb)");
+    assertNull(Equivalence.findCounterexample(one, two, one.getComparator()));
+    CharFsa three = CharFsa.compileRegex("(a|b)*(aaa|aab|aba)");
+    assertEquals(Arrays.asList('a', 'b', 'b'),
+        Equivalence.findCounterexample(one, three, one.getComparator()));
+    assertTrue(three.isSubsetOf(one));
+    assertFalse(one.isSubsetOf(three));
+  }
+}
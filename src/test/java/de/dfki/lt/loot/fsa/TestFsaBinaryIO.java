@@ -0,0 +1,208 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import de.dfki.lt.loot.digraph.CyclicGraphException;
+
+import org.junit.Test;
+
+/**
+ * {@link TestFsaBinaryIO} is a test class for {@link FsaBinaryIO}.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class TestFsaBinaryIO {
+
+  private static CharFsa roundTrip(CharFsa fsa) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    FsaBinaryIO.write(fsa, FsaBinaryIO.CHARS, out);
+    CharFsa result = new CharFsa();
+    FsaBinaryIO.read(new ByteArrayInputStream(out.toByteArray()),
+        FsaBinaryIO.CHARS, result);
+    return result;
+  }
+
+  @Test
+  public void testRegexRoundTrip() throws IOException {
+    // contains epsilon edges and unused vertices
+    CharFsa nfa = CharFsa.compileRegex("(a|b)*abb|[x-z]?");
+    CharFsa result = roundTrip(nfa);
+    assertEquals(nfa.getNumberOfActiveVertices(),
+        result.getNumberOfActiveVertices());
+    assertTrue(result.isEquivalent(nfa));
+  }
+
+  @Test
+  public void testLexiconRoundTrip() throws IOException {
+    List<String> lex = CharFsa.readLexicon(
+        Paths.get("src/test/resources/fsa/top10000de.txt").toString());
+    CharFsa lexicon = CharFsa.lexiconAutomaton(lex);
+    Path tmp = Files.createTempFile("lexicon", ".fsa");
+    try {
+      lexicon.saveAsBinary(tmp);
+      CharFsa result = CharFsa.readFromBinary(tmp);
+      assertEquals(lexicon.getNumberOfActiveVertices(),
+          result.getNumberOfActiveVertices());
+      for (String word : lex) {
+        assertTrue(word, result.deterministicMatch(word));
+      }
+      assertTrue(result.isEquivalent(lexicon));
+    } finally {
+      Files.delete(tmp);
+    }
+  }
+
+  @Test
+  public void testWordCountsRoundTrip()
+      throws IOException, CyclicGraphException {
+    List<String> lex = CharFsa.readLexicon(
+        Paths.get("src/test/resources/fsa/top10000de.txt").toString());
+    CharFsa lexicon = CharFsa.lexiconAutomaton(lex);
+    assertNull(roundTrip(lexicon).getPropertyMap(CharFsa.WORD_COUNTS));
+    lexicon.computeWordCounts();
+    CharFsa result = roundTrip(lexicon);
+    List<String> sorted = new ArrayList<String>(new TreeSet<String>(lex));
+    assertEquals(sorted.size(), result.getNumberOfWords());
+    for (int i = 0; i < sorted.size(); ++i) {
+      assertEquals(i, result.wordToIndex(sorted.get(i)));
+      assertEquals(sorted.get(i), result.indexToWord(i));
+    }
+    assertEquals(-1, result.wordToIndex("xyzzyx"));
+    assertNull(result.indexToWord(sorted.size()));
+  }
+
+  @Test
+  public void testStringFsaRoundTrip() throws IOException {
+    StringFsa sprout = new StringFsa();
+    sprout.readFromText(
+        Paths.get("src/test/resources/fsa/det-sprout-aut.txt"));
+    Path tmp = Files.createTempFile("sprout", ".fsa");
+    try {
+      sprout.saveAsBinary(tmp);
+      StringFsa result = new StringFsa();
+      result.readFromBinary(tmp);
+      assertEquals(sprout.getNumberOfActiveVertices(),
+          result.getNumberOfActiveVertices());
+      assertTrue(result.isEquivalent(sprout));
+    } finally {
+      Files.delete(tmp);
+    }
+  }
+
+  @Test
+  public void testConsecutive() throws IOException {
+    // read must not consume more than one automaton from the stream
+    CharFsa first = CharFsa.compileRegex("(a|b)*abb");
+    CharFsa second = CharFsa.compileRegex("x|yz*");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    FsaBinaryIO.write(first, FsaBinaryIO.CHARS, out);
+    FsaBinaryIO.write(second, FsaBinaryIO.CHARS, out);
+    out.write(42);
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    CharFsa result = new CharFsa();
+    FsaBinaryIO.read(in, FsaBinaryIO.CHARS, result);
+    assertTrue(result.isEquivalent(first));
+    result = new CharFsa();
+    FsaBinaryIO.read(in, FsaBinaryIO.CHARS, result);
+    assertTrue(result.isEquivalent(second));
+    assertEquals(42, in.read());
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    CharFsa empty = new CharFsa();
+    CharFsa result = roundTrip(empty);
+    assertEquals(0, result.getNumberOfActiveVertices());
+  }
+
+  @Test(expected = IOException.class)
+  public void testWrongFormat() throws IOException {
+    FsaBinaryIO.read(new ByteArrayInputStream("0 1 a\n".getBytes()),
+        FsaBinaryIO.CHARS, new CharFsa());
+  }
+
+  /** Return the image of an automaton with the edge 0 -a-> 1, where the
+   *  symbol and target indices of the edge are given
+   */
+  private static byte[] oneEdge(int symbol, int target) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeBytes("LFSA");
+    out.writeByte(FsaBinaryIO.VERSION);
+    FsaBinaryIO.writeVarInt(out, 1);
+    FsaBinaryIO.CHARS.write(out, 'a');
+    FsaBinaryIO.writeVarInt(out, 2);
+    FsaBinaryIO.writeVarInt(out, 1);
+    out.writeByte(2);
+    FsaBinaryIO.writeVarInt(out, 1);
+    FsaBinaryIO.writeVarInt(out, symbol);
+    FsaBinaryIO.writeVarInt(out, target);
+    FsaBinaryIO.writeVarInt(out, 0);
+    FsaBinaryIO.writeVarInt(out, 0);
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  private static void assertCorrupt(byte[] image) {
+    try {
+      FsaBinaryIO.read(new ByteArrayInputStream(image), FsaBinaryIO.CHARS,
+          new CharFsa());
+      fail("corrupt automaton was read");
+    } catch (IOException e) {
+      assertEquals("corrupt automaton", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testCorrupt() throws IOException {
+    CharFsa fsa = new CharFsa();
+    FsaBinaryIO.read(new ByteArrayInputStream(oneEdge(1, 1)),
+        FsaBinaryIO.CHARS, fsa);
+    assertTrue(fsa.deterministicMatch("a"));
+    assertCorrupt(oneEdge(2, 1));
+    assertCorrupt(oneEdge(1, 2));
+    assertCorrupt(oneEdge(-1, 1));
+  }
+
+  @Test
+  public void testVarInt() throws IOException {
+    int[] values = { 0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1 };
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    for (int v : values) FsaBinaryIO.writeVarInt(out, v);
+    DataInputStream in = new DataInputStream(
+        new ByteArrayInputStream(bytes.toByteArray()));
+    for (int v : values) assertEquals(v, FsaBinaryIO.readVarInt(in));
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.dfki.lt.loot.digraph.Edge;
+import de.dfki.lt.loot.fsa.algo.Minimization;
+
+/**
+ * {@link TestLexiconBuilder} is a test class for {@link LexiconBuilder}.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class TestLexiconBuilder {
+
+  /** Build the trie for the lexicon the old way */
+  private static CharFsa trie(List<String> lexicon) {
+    CharFsa result = new CharFsa();
+    result.setInitialState(result.newVertex());
+    for (String word : lexicon) {
+      int current = result.getInitialState();
+      for (int i = 0; i < word.length(); ++i) {
+        Edge<Character> outEdge =
+            result.findEdge(current, word.charAt(i), result.getComparator());
+        if (outEdge == null) {
+          int next = result.newVertex();
+          result.newEdge(word.charAt(i), current, next);
+          current = next;
+        } else {
+          current = outEdge.getTarget();
+        }
+      }
+      result.setFinalState(current);
+    }
+    return result;
+  }
+
+  @Test
+  public void testSmallLexicon() {
+    List<String> lex = Arrays.asList("tap", "taps", "top", "tops", "");
+    CharFsa fsa = LexiconBuilder.build(lex);
+    assertTrue(fsa.checkLexicon(lex));
+    assertFalse(fsa.deterministicMatch("ta"));
+    assertFalse(fsa.deterministicMatch("tapss"));
+    // start, t, a|o, p (final), s (final)
+    assertEquals(5, fsa.getNumberOfActiveVertices());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsorted() {
+    LexiconBuilder builder = new LexiconBuilder();
+    builder.addWord("b");
+    builder.addWord("a");
+  }
+
+  @Test
+  public void testAsMinimizedTrie() throws IOException {
+    List<String> lex = CharFsa.readLexicon(
+        Paths.get("src/test/resources/fsa/top10000de.txt").toString());
+    CharFsa fsa = CharFsa.lexiconAutomaton(lex);
+    assertTrue(fsa.checkLexicon(lex));
+
+    CharFsa hopcroft = trie(lex);
+    Minimization.minimize(hopcroft, hopcroft.getComparator());
+    assertEquals(hopcroft.getNumberOfActiveVertices(),
+        fsa.getNumberOfActiveVertices());
+    assertTrue(fsa.isEquivalent(hopcroft));
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import de.dfki.lt.loot.digraph.CyclicGraphException;
+
+/**
+ * {@link TestMappedCharFsa} is a test class for {@link MappedCharFsa}.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class TestMappedCharFsa {
+
+  @Test
+  public void testLexicon() throws IOException {
+    List<String> lex = CharFsa.readLexicon(
+        Paths.get("src/test/resources/fsa/top10000de.txt").toString());
+    CharFsa lexicon = CharFsa.lexiconAutomaton(lex);
+    Path tmp = Files.createTempFile("lexicon", ".fsi");
+    try {
+      MappedCharFsa.write(lexicon, tmp);
+      MappedCharFsa mapped = MappedCharFsa.map(tmp);
+      assertEquals(lexicon.getNumberOfActiveVertices(),
+          mapped.getNumberOfStates());
+      for (String word : lex) {
+        assertTrue(word, mapped.deterministicMatch(word));
+        assertTrue(word, mapped.isPrefix(word.substring(0, word.length() / 2)));
+        String other = word + "xq";
+        assertEquals(other, lexicon.deterministicMatch(other),
+            mapped.deterministicMatch(other));
+      }
+      assertFalse(mapped.deterministicMatch(""));
+    } finally {
+      Files.delete(tmp);
+    }
+  }
+
+  @Test
+  public void testWordCounts() throws IOException, CyclicGraphException {
+    List<String> lex = CharFsa.readLexicon(
+        Paths.get("src/test/resources/fsa/top10000de.txt").toString());
+    CharFsa lexicon = CharFsa.lexiconAutomaton(lex);
+    lexicon.computeWordCounts();
+    List<String> sorted = new ArrayList<String>(new TreeSet<String>(lex));
+    Path tmp = Files.createTempFile("lexicon", ".fsi");
+    try {
+      MappedCharFsa.write(lexicon, tmp);
+      MappedCharFsa mapped = MappedCharFsa.map(tmp);
+      assertTrue(mapped.hasWordCounts());
+      assertEquals(sorted.size(), mapped.getNumberOfWords());
+      for (int i = 0; i < sorted.size(); ++i) {
+        assertEquals(i, mapped.wordToIndex(sorted.get(i)));
+        assertEquals(sorted.get(i), mapped.indexToWord(i));
+      }
+      assertEquals(-1, mapped.wordToIndex("xyzzyx"));
+      assertNull(mapped.indexToWord(sorted.size()));
+      assertNull(mapped.indexToWord(-1));
+    } finally {
+      Files.delete(tmp);
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNoWordCounts() throws IOException {
+    CharFsa dfa = CharFsa.compileRegex("ab|c").determinize();
+    Path tmp = Files.createTempFile("regex", ".fsi");
+    try {
+      MappedCharFsa.write(dfa, tmp);
+      MappedCharFsa mapped = MappedCharFsa.map(tmp);
+      assertFalse(mapped.hasWordCounts());
+      mapped.wordToIndex("ab");
+    } finally {
+      Files.delete(tmp);
+    }
+  }
+
+  @Test
+  public void testLongestMatch() throws IOException {
+    CharFsa nfa = CharFsa.compileRegex("ab|abab|c*");
+    CharFsa dfa = nfa.determinize();
+    Path tmp = Files.createTempFile("regex", ".fsi");
+    try {
+      MappedCharFsa.write(dfa, tmp);
+      MappedCharFsa mapped = MappedCharFsa.map(tmp);
+      assertEquals(5, mapped.longestMatch("xababa", 1));
+      assertEquals(3, mapped.longestMatch("xabc", 1));
+      assertEquals(3, mapped.longestMatch("ccc", 0));
+      assertEquals(0, mapped.longestMatch("ba", 0));
+    } finally {
+      Files.delete(tmp);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonDeterministic() throws IOException {
+    Path tmp = Files.createTempFile("regex", ".fsi");
+    try {
+      MappedCharFsa.write(CharFsa.compileRegex("a|ab"), tmp);
+    } finally {
+      Files.delete(tmp);
+    }
+  }
+}
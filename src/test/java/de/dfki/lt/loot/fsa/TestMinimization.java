@@ -19,6 +19,8 @@ package de.dfki.lt.loot.fsa;
 import static de.dfki.lt.loot.digraph.Utils.*;
 import static de.dfki.lt.loot.digraph.io.GraphPrinterFactory.printGraph;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.nio.file.Paths;
@@ -30,8 +32,10 @@ import java.util.Map;
 import org.junit.Test;
 
 import de.dfki.lt.loot.digraph.TestDirectedGraph;
+import de.dfki.lt.loot.fsa.algo.Determinization;
 import de.dfki.lt.loot.fsa.algo.Minimization;
 import de.dfki.lt.loot.fsa.algo.MinimizationBrzowski;
+import de.dfki.lt.loot.fsa.algo.MinimizationValmari;
 
 public class TestMinimization {
   String[] in = {
@@ -175,6 +179,62 @@ public class TestMinimization {
     }
   }
 
+  @Test
+  public void testMinimizationValmari() {
+    for (int i = 0; i < in.length; ++i) {
+      CharFsa expected = new CharFsa();
+      int[] expected_res = readFromText(out[i], expected);
+
+      CharFsa fsa = new CharFsa();
+      @SuppressWarnings("unused")
+      int[] res = readFromText(in[i], fsa);
+
+      MinimizationValmari.minimize(fsa, fsa.getComparator());
+      if (print) printGraph(fsa, i+"_min2vout.dot");
+
+      assertEquals("" + i, expected.getNumberOfActiveVertices(),
+          fsa.getNumberOfActiveVertices());
+      assertEquals("" + i, expected.getFinalStates().size(),
+          fsa.getFinalStates().size());
+      assertEquals("" + i, expected_res[1], TestDirectedGraph.countEdges(fsa));
+    }
+  }
+
+  @Test
+  public void testMinimizationValmariPartial() {
+    // a large alphabet, but few transitions, and a dead end state 3
+    CharFsa fsa = new CharFsa();
+    readFromText("0%0 a 1%0 b 2%1 c 4%2 c 4%0 d 3%3 e 3%4", fsa);
+    CharFsa expected = CharFsa.compileRegex("[ab]c");
+    MinimizationValmari.minimize(fsa, fsa.getComparator());
+    assertEquals(3, fsa.getNumberOfActiveVertices());
+    assertEquals(3, TestDirectedGraph.countEdges(fsa));
+    assertEquals(true, fsa.isEquivalent(expected));
+  }
+
+  @Test
+  public void testMinimizationBrzowskiNfa() {
+    // all words over {a,b} with an a at the third position from the end
+    CharFsa nfa = new CharFsa();
+    readFromText("0%0 a 0%0 b 0%0 a 1%1 a 2%1 b 2%2 a 3%2 b 3%3", nfa);
+    CharFsa det = new CharFsa();
+    Determinization.determinize(nfa, nfa.getComparator(), det);
+    Minimization.minimize(det, det.getComparator());
+
+    CharFsa brzozowski = new CharFsa();
+    MinimizationBrzowski.minimize(nfa, nfa.getComparator(), brzozowski);
+    assertEquals(8, brzozowski.getNumberOfActiveVertices());
+    assertEquals(16, TestDirectedGraph.countEdges(brzozowski));
+    assertTrue(brzozowski.isEquivalent(det));
+
+    CharFsa dispatched = new CharFsa();
+    Minimization.minimize(nfa, nfa.getComparator(), dispatched);
+    assertEquals(8, dispatched.getNumberOfActiveVertices());
+    assertTrue(dispatched.isEquivalent(det));
+    assertTrue(dispatched.deterministicMatch("bbabb"));
+    assertFalse(dispatched.deterministicMatch("abbb"));
+  }
+
   private static boolean problemPersists(StringFsa one) {
     StringFsa two = one.minimize();
     return ! one.isEquivalent(two);
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * {@link TestMultiPatternMatcher} is a test class for
+ * {@link MultiPatternMatcher}.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class TestMultiPatternMatcher {
+
+  private static final List<String> PATTERNS = Arrays.asList(
+      "ab*", "a[b-c]*", "(a|b)*abb", "[ab]", "a|b", "c*");
+
+  @Test
+  public void testMatch() {
+    MultiPatternMatcher m = new MultiPatternMatcher(PATTERNS);
+    assertArrayEquals(new int[]{ 0, 1, 3, 4 }, m.match("a"));
+    assertArrayEquals(new int[]{ 0, 1 }, m.match("ab"));
+    assertArrayEquals(new int[]{ 0, 1, 2 }, m.match("abb"));
+    assertArrayEquals(new int[]{ 1 }, m.match("acb"));
+    assertArrayEquals(new int[]{ 3, 4 }, m.match("b"));
+    assertArrayEquals(new int[]{ 5 }, m.match(""));
+    assertArrayEquals(new int[]{ }, m.match("ba"));
+  }
+
+  /** Compare with java.util.regex on all strings over {a, b, c} up to
+   *  length 5
+   */
+  @Test
+  public void testAgainstJavaRegex() {
+    MultiPatternMatcher m = new MultiPatternMatcher(PATTERNS);
+    List<Pattern> regexes = new ArrayList<Pattern>();
+    for (String p : PATTERNS) regexes.add(Pattern.compile(p));
+    List<String> inputs = new ArrayList<String>();
+    inputs.add("");
+    for (int i = 0; i < inputs.size() && inputs.get(i).length() < 5; ++i) {
+      for (char c = 'a'; c <= 'c'; ++c) inputs.add(inputs.get(i) + c);
+    }
+    for (String input : inputs) {
+      List<Integer> expected = new ArrayList<Integer>();
+      for (int id = 0; id < regexes.size(); ++id) {
+        if (regexes.get(id).matcher(input).matches()) expected.add(id);
+      }
+      int[] result = m.match(input);
+      assertEquals(input, expected.size(), result.length);
+      for (int i = 0; i < result.length; ++i) {
+        assertEquals(input, (int) expected.get(i), result[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testMinimal() {
+    // equal languages must end up in the same states
+    MultiPatternMatcher m =
+        new MultiPatternMatcher(Arrays.asList("a|b", "[ab]"));
+    assertEquals(2, m.getAutomaton().getNumberOfActiveVertices());
+    // different pattern sets must not be merged
+    m = new MultiPatternMatcher(Arrays.asList("a", "b"));
+    assertEquals(3, m.getAutomaton().getNumberOfActiveVertices());
+  }
+
+  @Test
+  public void testFindAll() {
+    MultiPatternMatcher m =
+        new MultiPatternMatcher(Arrays.asList("ab", "b[a-z]*", "x"));
+    final List<String> found = new ArrayList<String>();
+    m.findAll("abc", new MultiPatternMatcher.MatchHandler() {
+      @Override
+      public void match(int start, int end, int[] patternIds) {
+        found.add(start + "-" + end + Arrays.toString(patternIds));
+      }
+    });
+    assertEquals(Arrays.asList("0-2[0]", "1-2[1]", "1-3[1]"), found);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidPattern() {
+    new MultiPatternMatcher(Arrays.asList("a", "(b"));
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+/**
+ * {@link TestNfaMatcher} is a test class for {@link NfaMatcher}.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class TestNfaMatcher {
+
+  private static final String[] regexes = {
+    "X*|Y", "A*BA", "ABA*", "ABAB(X*|Y)*", "([a-c]a[a-c])*", "(xy|yx)*b"
+  };
+
+  private static final String[] inputs = {
+    "", "X", "XXX", "Y", "YY", "BA", "AABA", "AB", "ABAAA", "ABABXXY",
+    "ABABY", "aac", "bab", "cacaba", "caca", "xyb", "yxxyb", "xyyb", "b"
+  };
+
+  @Test
+  public void testMatchesAsDeterministic() throws IOException {
+    for (String regex : regexes) {
+      CharFsa nfa = CharFsa.compileRegex(regex);
+      CharFsa dfa = nfa.determinize();
+      NfaMatcher m = new NfaMatcher(nfa);
+      for (String input : inputs) {
+        assertEquals(regex + " " + input, dfa.deterministicMatch(input),
+            m.matches(input));
+        assertEquals(regex + " " + input, dfa.deterministicMatch(input),
+            m.matches(new StringReader(input)));
+      }
+    }
+  }
+
+  @Test
+  public void testFind() throws IOException {
+    NfaMatcher m = new NfaMatcher(CharFsa.compileRegex("ab*c"));
+    assertTrue(m.find("xxabbbcyy"));
+    assertTrue(m.find(new StringReader("xxabbbcyy")));
+    assertFalse(m.find("xxabbbyy"));
+    assertFalse(m.find(new StringReader("xxabbbyy")));
+    assertArrayEquals(new int[] { 2, 7 }, m.find("xxabbbcyyac", 0));
+    assertArrayEquals(new int[] { 9, 11 }, m.find("xxabbbcyyac", 3));
+    assertNull(m.find("xxabbbcyyac", 10));
+  }
+
+  @Test
+  public void testLongestMatch() {
+    NfaMatcher m = new NfaMatcher(CharFsa.compileRegex("a*"));
+    assertEquals(4, m.longestMatch("baaab", 1));
+    assertEquals(0, m.longestMatch("baaab", 0));
+  }
+
+  /** The leftmost-longest match, by trying all start positions */
+  private static int[] findByStarts(NfaMatcher m, String input, int from) {
+    for (int start = from; start <= input.length(); ++start) {
+      int end = m.longestMatch(input, start);
+      if (end >= 0) return new int[] { start, end };
+    }
+    return null;
+  }
+
+  @Test
+  public void testFindLeftmostLongest() {
+    // the first match to end is not the leftmost one
+    NfaMatcher m = new NfaMatcher(CharFsa.compileRegex("abcd|c"));
+    assertArrayEquals(new int[] { 0, 4 }, m.find("abcd", 0));
+    assertArrayEquals(new int[] { 2, 3 }, m.find("abce", 0));
+    String[] texts = {
+      "XXAABAY", "ABABXYXYABAB", "cacabab", "yxyxbxyb", "ABAAABA", "qqq"
+    };
+    for (String regex : regexes) {
+      NfaMatcher r = new NfaMatcher(CharFsa.compileRegex(regex));
+      for (String text : texts) {
+        for (int from = 0; from <= text.length(); ++from) {
+          assertArrayEquals(regex + " " + text + " " + from,
+              findByStarts(r, text, from), r.find(text, from));
+        }
+      }
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testFindLinear() {
+    NfaMatcher m = new NfaMatcher(CharFsa.compileRegex("(a*b)|c"));
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 1000000; ++i) sb.append('a');
+    sb.append('c');
+    assertArrayEquals(new int[] { 1000000, 1000001 }, m.find(sb, 0));
+  }
+}
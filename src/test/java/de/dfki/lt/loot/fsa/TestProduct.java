@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.dfki.lt.loot.fsa.algo.Product;
+
+/**
+ * {@link TestProduct} is a test class for {@link Product}.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class TestProduct {
+
+  @Test
+  public void testIntersection() {
+    CharFsa a = CharFsa.compileRegex("[ab]*a");
+    CharFsa b = CharFsa.compileRegex("b[ab]*");
+    CharFsa result = new CharFsa();
+    assertTrue(Product.intersection(a, b, a.getComparator(), result));
+    NfaMatcher m = new NfaMatcher(result);
+    assertTrue(m.matches("ba"));
+    assertTrue(m.matches("bbba"));
+    assertFalse(m.matches("aa"));
+    assertFalse(m.matches("bab"));
+    assertFalse(Product.isIntersectionEmpty(a, b, a.getComparator()));
+    assertTrue(Product.isIntersectionEmpty(a,
+        CharFsa.compileRegex("[ab]*b"), a.getComparator()));
+  }
+
+  @Test
+  public void testDifference() {
+    CharFsa a = CharFsa.compileRegex("[abc]");
+    CharFsa b = CharFsa.compileRegex("a|c");
+    CharFsa result = new CharFsa();
+    assertTrue(Product.difference(a, b, a.getComparator(), result));
+    NfaMatcher m = new NfaMatcher(result);
+    assertTrue(m.matches("b"));
+    assertFalse(m.matches("a"));
+    assertFalse(m.matches("c"));
+    assertFalse(m.matches(""));
+    assertTrue(Product.isDifferenceEmpty(b, a, a.getComparator()));
+    assertFalse(Product.isDifferenceEmpty(a, b, a.getComparator()));
+  }
+
+  @Test
+  public void testLexiconFilter() throws IOException {
+    List<String> lex = CharFsa.readLexicon(
+        Paths.get("src/test/resources/fsa/top10000de.txt").toString());
+    CharFsa lexicon = CharFsa.lexiconAutomaton(lex);
+    String regex = "[a-zäöüß]*ung";
+    CharFsa filter = CharFsa.compileRegex(regex);
+    CharFsa result = new CharFsa();
+    Product.intersection(lexicon, filter, lexicon.getComparator(), result);
+    NfaMatcher m = new NfaMatcher(result);
+    int found = 0;
+    for (String word : lex) {
+      boolean expected = word.matches(regex);
+      assertEquals(word, expected, m.matches(word));
+      if (expected) ++found;
+    }
+    assertTrue(found > 0);
+  }
+}
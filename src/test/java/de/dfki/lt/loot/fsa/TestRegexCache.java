@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * {@link TestRegexCache} is a test class for {@link RegexCache}.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class TestRegexCache {
+
+  @Test
+  public void testHitsAndMisses() {
+    RegexCache cache = new RegexCache(10000);
+    CharFsa one = cache.get("(a|b)*abb");
+    CharFsa again = cache.get("(a|b)*abb");
+    assertNotSame(one, again);
+    assertTrue(again.isEquivalent(one));
+    CharFsa min = cache.get("(a|b)*abb", CharFsa.RegexConstruction.THOMPSON,
+        true);
+    assertNotSame(one, min);
+    // the minimal DFA for (a|b)*abb has 4 states
+    assertEquals(4, min.getNumberOfActiveVertices());
+    assertTrue(min.isEquivalent(one));
+    assertEquals(1, cache.getHits());
+    assertEquals(2, cache.getMisses());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testEviction() {
+    CharFsa abc = CharFsa.compileRegex("abc");
+    long weight = RegexCache.weight(abc);
+    RegexCache cache = new RegexCache(2 * weight);
+    cache.get("abc");
+    cache.get("abd");
+    cache.get("abc");
+    // abd is the least recently used one
+    cache.get("abe");
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictions());
+    assertEquals(2 * weight, cache.getWeight());
+    cache.get("abc");
+    assertEquals(2, cache.getHits());
+    cache.get("abd");
+    assertEquals(4, cache.getMisses());
+  }
+
+  @Test
+  public void testCallersOwnResult() {
+    RegexCache cache = new RegexCache(10000);
+    CharFsa one = cache.get("(a|b)*abb");
+    long weight = cache.getWeight();
+    // changing the result in place does not change the cached automaton
+    one.setFinalState(one.getInitialState());
+    CharFsa two = cache.get("(a|b)*abb");
+    assertTrue(two.isEquivalent(CharFsa.compileRegex("(a|b)*abb")));
+    assertFalse(two.isEquivalent(one));
+    assertEquals(weight, cache.getWeight());
+    assertEquals(RegexCache.weight(two), weight);
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.fsa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * {@link TestTokenizer} is a test class for {@link Tokenizer}.
+ *
+ * @author Bernd Kiefer, DFKI
+ */
+public class TestTokenizer {
+
+  private static final int KEYWORD = 0, IDENT = 1, NUMBER = 2, OP = 3;
+
+  private static List<CharFsa> automata() {
+    List<CharFsa> result = new ArrayList<CharFsa>();
+    for (String regex : new String[] {
+        "if|in", "[a-z][a-z0-9]*", "[0-9][0-9]*", "=|==|<|<=" }) {
+      result.add(CharFsa.compileRegex(regex).determinize());
+    }
+    return result;
+  }
+
+  /** Return the tokens as "id:start-end:text" */
+  private static List<String> tokens(Tokenizer tok) throws IOException {
+    List<String> result = new ArrayList<String>();
+    while (tok.next()) {
+      assertEquals(tok.getEnd() - tok.getStart(), tok.getLength());
+      result.add(tok.getTokenId() + ":" + tok.getStart() + "-" + tok.getEnd()
+          + ":" + tok.getToken());
+    }
+    return result;
+  }
+
+  private static final String INPUT = "if iff<=42 in x1==in2;";
+
+  private static final String[] EXPECTED = {
+      KEYWORD + ":0-2:if", IDENT + ":3-6:iff", OP + ":6-8:<=",
+      NUMBER + ":8-10:42", KEYWORD + ":11-13:in", IDENT + ":14-16:x1",
+      OP + ":16-18:==", IDENT + ":18-21:in2" };
+
+  @Test
+  public void testLongestMatch() throws IOException {
+    Tokenizer tok = new Tokenizer(automata());
+    tok.reset(CharBuffer.wrap(INPUT));
+    List<String> result = tokens(tok);
+    assertEquals(EXPECTED.length, result.size());
+    for (int i = 0; i < EXPECTED.length; ++i) {
+      assertEquals(EXPECTED[i], result.get(i));
+    }
+  }
+
+  /** A reader that returns one character per read call */
+  private static class SlowReader extends StringReader {
+    SlowReader(String s) { super(s); }
+
+    @Override
+    public int read(char[] buf, int off, int len) throws IOException {
+      return super.read(buf, off, Math.min(len, 1));
+    }
+  }
+
+  @Test
+  public void testChunkedReader() throws IOException {
+    // a tiny buffer, so that tokens cross buffer boundaries
+    Tokenizer tok = new Tokenizer(automata(), 1);
+    Reader in = new SlowReader(INPUT);
+    tok.reset(in);
+    List<String> result = tokens(tok);
+    assertEquals(EXPECTED.length, result.size());
+    for (int i = 0; i < EXPECTED.length; ++i) {
+      assertEquals(EXPECTED[i], result.get(i));
+    }
+  }
+
+  @Test
+  public void testLongToken() throws IOException {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 1000; ++i) sb.append('a');
+    sb.append(' ').append("b");
+    Tokenizer tok = new Tokenizer(automata(), 16);
+    tok.reset(new StringReader(sb.toString()));
+    List<String> result = tokens(tok);
+    assertEquals(2, result.size());
+    assertEquals(IDENT + ":1001-1002:b", result.get(1));
+  }
+
+  @Test
+  public void testLongLookahead() throws IOException {
+    // a*b reads the whole run of a's before it fails
+    List<CharFsa> dfas = new ArrayList<CharFsa>();
+    dfas.add(CharFsa.compileRegex("a*b").determinize());
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 100000; ++i) sb.append('a');
+    String as = sb.toString();
+
+    Tokenizer tok = new Tokenizer(dfas, 16, 64);
+    tok.reset(new StringReader(as));
+    assertEquals(0, tokens(tok).size());
+    assertTrue(tok.getBuffer().length <= 128);
+
+    // the token is split after the maximal lookahead
+    tok.reset(new StringReader(as.substring(0, 100) + "b"));
+    List<String> result = tokens(tok);
+    assertEquals(1, result.size());
+    assertEquals("0:37-101:" + as.substring(0, 63) + "b", result.get(0));
+
+    // without a limit, the whole run is one token
+    tok = new Tokenizer(dfas, 16);
+    tok.reset(new StringReader(as.substring(0, 100) + "b"));
+    result = tokens(tok);
+    assertEquals(1, result.size());
+    assertEquals("0:0-101:" + as.substring(0, 100) + "b", result.get(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonDeterministic() {
+    List<CharFsa> dfas = new ArrayList<CharFsa>();
+    dfas.add(CharFsa.compileRegex("a|ab"));
+    new Tokenizer(dfas);
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import static org.junit.Assert.*;
+
+import gnu.trove.list.array.TIntArrayList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestCompactIntTrie {
+
+  private static List<int[]> randomSequences(int n, long seed) {
+    Random r = new Random(seed);
+    List<int[]> result = new ArrayList<int[]>();
+    for (int i = 0; i < n; ++i) {
+      int[] seq = new int[r.nextInt(6)];
+      for (int j = 0; j < seq.length; ++j) seq[j] = r.nextInt(5) - 1;
+      result.add(seq);
+    }
+    return result;
+  }
+
+  private static final Comparator<int[]> LEX = new Comparator<int[]>() {
+    @Override
+    public int compare(int[] a, int[] b) {
+      for (int i = 0; i < Math.min(a.length, b.length); ++i) {
+        if (a[i] != b[i]) return Integer.compare(a[i], b[i]);
+      }
+      return a.length - b.length;
+    }
+  };
+
+  @Test
+  public void testFromIntIntTrie() {
+    IntIntTrie trie = new IntIntTrie();
+    List<int[]> seqs = randomSequences(500, 1);
+    for (int[] seq : seqs) trie.addSequence(seq);
+    CompactIntTrie<Integer> compact = CompactIntTrie.fromTrie(trie);
+    // find needs sorted children
+    trie.optimize();
+    assertEquals(trie.size(), compact.size());
+    for (int[] seq : seqs) {
+      assertEquals(trie.find(seq).getFinalId(), compact.getId(seq));
+    }
+    for (int[] seq : randomSequences(500, 2)) {
+      IntIntTrie node = trie.find(seq);
+      int expected = node == null ? -1 : node.getFinalId();
+      assertEquals(expected, compact.getId(seq));
+    }
+  }
+
+  @Test
+  public void testFromIntTrie() {
+    IntTrie<String> trie = new IntTrie<String>();
+    List<int[]> seqs = randomSequences(500, 3);
+    for (int[] seq : seqs) trie.addSequence(seq, Arrays.toString(seq));
+    CompactIntTrie<String> compact = CompactIntTrie.fromTrie(trie);
+    for (int[] seq : seqs) {
+      assertEquals(Arrays.toString(seq), compact.getValue(seq));
+    }
+    for (int[] seq : randomSequences(500, 4)) {
+      assertEquals(trie.getValue(seq), compact.getValue(seq));
+    }
+  }
+
+  @Test
+  public void testFromSorted() {
+    List<int[]> seqs = randomSequences(500, 5);
+    Collections.sort(seqs, LEX);
+    // remove duplicates
+    List<int[]> unique = new ArrayList<int[]>();
+    for (int[] seq : seqs) {
+      if (unique.isEmpty()
+          || LEX.compare(unique.get(unique.size() - 1), seq) != 0) {
+        unique.add(seq);
+      }
+    }
+    CompactIntTrie<Integer> compact = CompactIntTrie.fromSorted(unique);
+    assertEquals(unique.size(), compact.size());
+    for (int i = 0; i < unique.size(); ++i) {
+      assertEquals(i, compact.getId(unique.get(i)));
+      assertEquals(Integer.valueOf(i), compact.getValue(unique.get(i)));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsorted() {
+    CompactIntTrie.fromSorted(Arrays.asList(
+        new int[]{ 1, 2 }, new int[]{ 1 }));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicate() {
+    CompactIntTrie.fromSorted(Arrays.asList(
+        new int[]{ 1, 2 }, new int[]{ 1, 2 }));
+  }
+
+  @Test
+  public void testLongestPrefix() {
+    CompactIntTrie<Integer> compact = CompactIntTrie.fromSorted(Arrays.asList(
+        new int[]{ 1 }, new int[]{ 1, 2, 3 }, new int[]{ 2 }));
+    int[] seq = { 0, 1, 2, 3, 4 };
+    assertEquals(-1, compact.longestPrefix(seq, 0));
+    assertEquals(4, compact.longestPrefix(seq, 1));
+    assertEquals(3, compact.longestPrefix(seq, 2));
+    assertEquals(-1, compact.longestPrefix(seq, 3));
+  }
+
+  @Test
+  public void testWalk() {
+    List<int[]> seqs = Arrays.asList(
+        new int[]{ }, new int[]{ -1, 5 }, new int[]{ 1 }, new int[]{ 1, 2 });
+    final CompactIntTrie<Integer> compact = CompactIntTrie.fromSorted(seqs);
+    final List<String> found = new ArrayList<String>();
+    compact.walkTrie(new CompactIntTrieWalker() {
+      TIntArrayList path = new TIntArrayList();
+      @Override
+      public void startNode(int node) {
+        if (compact.isFinal(node)) found.add(path.toString());
+      }
+      @Override
+      public void beforeEdge(int val) { path.add(val); }
+      @Override
+      public void afterEdge(int val) { path.removeAt(path.size() - 1); }
+      @Override
+      public void endNode(int node) { }
+    });
+    assertEquals(Arrays.asList("{}", "{-1, 5}", "{1}", "{1, 2}"), found);
+  }
+}
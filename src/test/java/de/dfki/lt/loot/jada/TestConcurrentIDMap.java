@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TestConcurrentIDMap {
+
+  @Test
+  public void testSequential() {
+    ConcurrentIDMap<String> map = new ConcurrentIDMap<String>();
+    assertEquals(-1, map.getId("a"));
+    assertNull(map.fromId(0));
+    for (int i = 0; i < 1000; ++i) {
+      assertEquals(i, map.register("s" + i));
+    }
+    assertEquals(17, map.register("s17"));
+    assertEquals(1000, map.size());
+    for (int i = 0; i < 1000; ++i) {
+      assertEquals("s" + i, map.fromId(i));
+      assertEquals(i, map.getId("s" + i));
+    }
+    assertTrue(map.contains("s999"));
+    assertFalse(map.contains("s1000"));
+    assertNull(map.fromId(1000));
+  }
+
+  @Test
+  public void testConcurrent() throws InterruptedException {
+    final ConcurrentIDMap<String> map = new ConcurrentIDMap<String>();
+    final int noThreads = 16, noThings = 5000;
+    final int[][] ids = new int[noThreads][noThings];
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < noThreads; ++t) {
+      final int thread = t;
+      threads.add(new Thread() {
+        @Override
+        public void run() {
+          for (int i = 0; i < noThings; ++i) {
+            int k = (i * 13 + thread * 977) % noThings;
+            ids[thread][k] = map.register("thing" + k);
+            assertEquals("thing" + k, map.fromId(ids[thread][k]));
+          }
+        }
+      });
+    }
+    for (Thread t : threads) t.start();
+    for (Thread t : threads) t.join();
+    assertEquals(noThings, map.size());
+    for (int k = 0; k < noThings; ++k) {
+      int id = map.getId("thing" + k);
+      assertEquals("thing" + k, map.fromId(id));
+      for (int t = 0; t < noThreads; ++t) {
+        assertEquals(id, ids[t][k]);
+      }
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestConcurrentIntIntTrie {
+
+  @Test
+  public void testSequential() {
+    ConcurrentIntIntTrie trie = new ConcurrentIntIntTrie();
+    int a = trie.addSequence(1, 2, 3);
+    int b = trie.addSequence(1, 2, 3, 4);
+    int c = trie.addSequence();
+    assertEquals(0, a);
+    assertEquals(1, b);
+    assertEquals(2, c);
+    assertEquals(a, trie.addSequence(1, 2, 3));
+    assertEquals(b, trie.getId(1, 2, 3, 4));
+    assertEquals(-1, trie.getId(1, 2));
+    assertEquals(-1, trie.getId(7));
+    assertEquals(trie.getId(1, 2, 3), trie.addSequence("\u0001\u0002\u0003"));
+    assertEquals(3, trie.size());
+  }
+
+  @Test
+  public void testHighDegree() {
+    ConcurrentIntIntTrie trie = new ConcurrentIntIntTrie();
+    int n = 10 * ConcurrentIntIntTrie.MAX_ARRAY_DEGREE;
+    for (int i = n - 1; i >= 0; --i) {
+      assertEquals(2 * (n - 1 - i), trie.addSequence(i));
+      assertEquals(2 * (n - 1 - i) + 1, trie.addSequence(5, i));
+    }
+    for (int i = 0; i < n; ++i) {
+      assertEquals(2 * (n - 1 - i), trie.getId(i));
+      assertEquals(2 * (n - 1 - i) + 1, trie.getId(5, i));
+    }
+    assertEquals(-1, trie.getId(n));
+    assertEquals(-1, trie.getId(5, n, 1));
+  }
+
+  @Test
+  public void testConcurrent() throws InterruptedException {
+    checkConcurrent(6);
+  }
+
+  @Test
+  public void testConcurrentHighDegree() throws InterruptedException {
+    // the nodes near the root switch to hash tables while threads add
+    checkConcurrent(500);
+  }
+
+  private static void checkConcurrent(int alphabet)
+      throws InterruptedException {
+    final ConcurrentIntIntTrie trie = new ConcurrentIntIntTrie();
+    final int noThreads = 16, noSequences = 2000;
+    final List<int[]> seqs = new ArrayList<int[]>();
+    Random r = new Random(42);
+    for (int i = 0; i < noSequences; ++i) {
+      int[] seq = new int[1 + r.nextInt(4)];
+      for (int j = 0; j < seq.length; ++j) seq[j] = r.nextInt(alphabet);
+      seqs.add(seq);
+    }
+    final int[][] ids = new int[noThreads][noSequences];
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < noThreads; ++t) {
+      final int thread = t;
+      threads.add(new Thread() {
+        @Override
+        public void run() {
+          // every thread registers all sequences, in a different order
+          for (int i = 0; i < noSequences; ++i) {
+            int k = (i * 7 + thread * 131) % noSequences;
+            ids[thread][k] = trie.addSequence(seqs.get(k));
+          }
+        }
+      });
+    }
+    for (Thread t : threads) t.start();
+    for (Thread t : threads) t.join();
+
+    IntIntTrie reference = new IntIntTrie();
+    for (int[] seq : seqs) reference.addSequence(seq);
+    assertEquals(reference.size(), trie.size());
+    BitSet used = new BitSet();
+    for (int i = 0; i < noSequences; ++i) {
+      int id = trie.getId(seqs.get(i));
+      for (int t = 0; t < noThreads; ++t) {
+        assertEquals(id, ids[t][i]);
+      }
+      used.set(id);
+    }
+    // the ids are dense
+    assertEquals(trie.size(), used.cardinality());
+    assertEquals(trie.size(), used.length());
+  }
+}
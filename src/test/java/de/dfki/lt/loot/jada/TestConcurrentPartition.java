@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestConcurrentPartition {
+
+  @Test
+  public void testSequential() {
+    ConcurrentPartition p = new ConcurrentPartition(10);
+    assertEquals(10, p.size());
+    assertEquals(3, p.union(5, 3));
+    assertEquals(1, p.union(9, 1));
+    assertEquals(1, p.union(3, 9));
+    assertTrue(p.equiv(5, 9));
+    assertFalse(p.equiv(5, 7));
+    assertEquals(1, p.findRepresentative(5));
+    assertArrayEquals(new int[]{ 0, 1, 2, 1, 3, 1, 4, 5, 6, 1 },
+        p.compactLabels());
+    // 1 is the representative of the class of 3, 5 and 9
+    assertArrayEquals(new int[]{ -1, -1, 0, 1, 2, 1, 3, 4, 5, 1 },
+        p.compactLabels(i -> i > 1));
+  }
+
+  @Test
+  public void testConcurrent() throws InterruptedException {
+    final int noThreads = 8, n = 20000, unions = 15000;
+    final int[] a = new int[unions], b = new int[unions];
+    Random r = new Random(7);
+    Partition expected = new Partition(n);
+    for (int i = 0; i < unions; ++i) {
+      a[i] = r.nextInt(n);
+      b[i] = r.nextInt(n);
+      expected.union(a[i], b[i]);
+    }
+    final ConcurrentPartition p = new ConcurrentPartition(n);
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < noThreads; ++t) {
+      final int thread = t;
+      threads.add(new Thread() {
+        @Override
+        public void run() {
+          // every thread does all unions, in a different order
+          for (int i = 0; i < unions; ++i) {
+            int k = (i * 7 + thread * 1013) % unions;
+            p.union(a[k], b[k]);
+          }
+        }
+      });
+    }
+    for (Thread t : threads) t.start();
+    for (Thread t : threads) t.join();
+    assertArrayEquals(expected.compactLabels(), p.compactLabels());
+  }
+}
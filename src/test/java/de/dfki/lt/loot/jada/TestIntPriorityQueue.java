@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class TestIntPriorityQueue {
+
+  private static final int N = 500;
+
+  private int[] keys = new int[N];
+
+  private IntComparator byKey = new IntComparator() {
+    @Override
+    public int compare(int a, int b) {
+      return Integer.compare(keys[a], keys[b]);
+    }
+  };
+
+  private static long entry(int key, int element) {
+    return ((long) key << 32) | element;
+  }
+
+  /** Run random operations on q and a reference, the keys are monotone */
+  private void randomOperations(IntPriorityQueue q, long seed) {
+    Random r = new Random(seed);
+    TreeSet<Long> ref = new TreeSet<Long>();
+    int last = 0;
+    for (int i = 0; i < 20000; ++i) {
+      int op = r.nextInt(10);
+      int e = r.nextInt(N);
+      if (op < 4) {
+        if (! q.contains(e)) {
+          keys[e] = last + r.nextInt(1000);
+          q.insert(e);
+          ref.add(entry(keys[e], e));
+        }
+      } else if (op < 7) {
+        if (q.contains(e) && keys[e] > last) {
+          ref.remove(entry(keys[e], e));
+          keys[e] = last + r.nextInt(keys[e] - last);
+          q.decreaseKey(e);
+          ref.add(entry(keys[e], e));
+        }
+      } else if (op < 8) {
+        assertEquals(ref.remove(entry(keys[e], e)), q.contains(e));
+        q.remove(e);
+        assertFalse(q.contains(e));
+      } else if (! ref.isEmpty()) {
+        int min = q.extractMin();
+        assertEquals(ref.first() >>> 32, keys[min]);
+        assertTrue(ref.remove(entry(keys[min], min)));
+        last = keys[min];
+      }
+      assertEquals(ref.size(), q.size());
+    }
+    while (! q.isEmpty()) {
+      int min = q.extractMin();
+      assertEquals(ref.pollFirst() >>> 32, keys[min]);
+    }
+    assertTrue(ref.isEmpty());
+  }
+
+  @Test
+  public void testBinary() {
+    randomOperations(new DaryIntHeap(N, 2, byKey), 1);
+  }
+
+  @Test
+  public void testQuaternary() {
+    randomOperations(new DaryIntHeap(N, 4, byKey), 2);
+  }
+
+  @Test
+  public void testPairing() {
+    randomOperations(new PairingIntHeap(N, byKey), 3);
+  }
+
+  @Test
+  public void testFibonacci() {
+    randomOperations(new FibonacciIntHeap(byKey), 4);
+  }
+
+  @Test
+  public void testRadix() {
+    randomOperations(new RadixIntHeap(N, (e) -> keys[e]), 5);
+  }
+
+  @Test
+  public void testBuckets() {
+    randomOperations(new BucketIntQueue(N, 999, (e) -> keys[e]), 6);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBucketsOutOfRange() {
+    IntPriorityQueue q = new BucketIntQueue(N, 10, (e) -> keys[e]);
+    keys[1] = 5;
+    keys[2] = 16;
+    q.insert(1);
+    q.insert(2);
+  }
+
+  @Test
+  public void testGrow() {
+    IntPriorityQueue q = new PairingIntHeap(2, byKey);
+    keys = new int[1000];
+    for (int e = 999; e >= 0; e -= 3) {
+      keys[e] = 1000 - e;
+      q.insert(e);
+    }
+    assertEquals(999, q.minimum());
+    assertEquals(334, q.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInsertTwice() {
+    IntPriorityQueue q = new DaryIntHeap(N, 2, byKey);
+    q.insert(3);
+    q.insert(3);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRadixNotMonotone() {
+    IntPriorityQueue q = new RadixIntHeap(N, (e) -> keys[e]);
+    keys[1] = 10;
+    keys[2] = 20;
+    q.insert(1);
+    q.insert(2);
+    assertEquals(1, q.extractMin());
+    keys[3] = 5;
+    q.insert(3);
+  }
+
+  @Test(expected = EmptyHeapException.class)
+  public void testEmpty() {
+    new PairingIntHeap(N, byKey).extractMin();
+  }
+}
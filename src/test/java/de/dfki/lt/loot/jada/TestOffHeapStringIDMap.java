@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019-2022 Jörg Steffen, Bernd Kiefer
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * ​https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package de.dfki.lt.loot.jada;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+public class TestOffHeapStringIDMap {
+
+  private static String string(int i) {
+    return (i % 3 == 0 ? "Größe" : "w") + i;
+  }
+
+  @Test
+  public void testRegister() {
+    OffHeapStringIDMap map = new OffHeapStringIDMap(4);
+    assertEquals(-1, map.getId("a"));
+    assertNull(map.fromId(0));
+    for (int i = 0; i < 10000; ++i) {
+      assertEquals(i, map.register(string(i)));
+    }
+    assertEquals(0, map.register(string(0)));
+    assertEquals(10000, map.size());
+    for (int i = 0; i < 10000; ++i) {
+      assertEquals(string(i), map.fromId(i));
+      assertEquals(i, map.getId(string(i)));
+    }
+    assertTrue(map.contains("Größe0"));
+    assertFalse(map.contains("w0"));
+  }
+
+  @Test
+  public void testEmptyString() {
+    OffHeapStringIDMap map = new OffHeapStringIDMap();
+    assertEquals(0, map.register("x"));
+    assertEquals(1, map.register(""));
+    assertEquals("", map.fromId(1));
+    assertEquals(1, map.getId(""));
+  }
+
+  @Test
+  public void testSaveAndMap() throws IOException {
+    OffHeapStringIDMap map = new OffHeapStringIDMap();
+    for (int i = 0; i < 5000; ++i) map.register(string(i));
+    Path tmp = Files.createTempFile("ids", ".map");
+    try {
+      map.save(tmp);
+      OffHeapStringIDMap mapped = OffHeapStringIDMap.map(tmp);
+      assertEquals(map.size(), mapped.size());
+      for (int i = 0; i < 5000; ++i) {
+        assertEquals(i, mapped.getId(string(i)));
+        assertEquals(string(i), mapped.fromId(i));
+        assertEquals(i, mapped.register(string(i)));
+      }
+      assertEquals(-1, mapped.getId("unknown"));
+      try {
+        mapped.register("unknown");
+        fail("mapped map must be read-only");
+      } catch (UnsupportedOperationException ex) {
+        // expected
+      }
+    } finally {
+      Files.delete(tmp);
+    }
+  }
+}
@@ -125,4 +125,75 @@ public class TestPartition {
     assertTrue(set.contains(5));
   }
 
+  @Test
+  public void testAddElement() {
+    Partition p = new Partition(0);
+    for (int i = 0; i < 100; ++i) {
+      assertEquals(i, p.addElement());
+    }
+    assertEquals(100, p.size());
+    p.union(3, 99);
+    assertTrue(p.equiv(3, 99));
+    assertEquals(99, p.getNumberOfClasses());
+  }
+
+  @Test
+  public void testUnionAll() {
+    Partition p = new Partition(10);
+    assertEquals(3,
+        p.unionAll(new int[]{ 1, 3, 5, 7 }, new int[]{ 3, 5, 1, 9 }));
+    assertEquals(7, p.getNumberOfClasses());
+    assertEquals(3, p.size(5));
+    assertEquals(2, p.size(9));
+  }
+
+  @Test
+  public void testCompactLabels() {
+    Partition p = new Partition(6);
+    p.union(5, 1);
+    p.union(4, 2);
+    p.union(2, 0);
+    assertArrayEquals(new int[]{ 0, 1, 0, 2, 0, 1 }, p.compactLabels());
+    // 5 keeps its label when 1 is filtered out, 3 loses its class
+    assertArrayEquals(new int[]{ 0, -1, 0, -1, 0, 1 },
+        p.compactLabels(i -> i != 1 && i != 3));
+  }
+
+  @Test
+  public void testRollback() {
+    Partition p = new Partition(10);
+    p.union(1, 2);
+    int outer = p.checkpoint();
+    p.union(2, 3);
+    int e = p.addElement();
+    p.union(e, 1);
+    int inner = p.checkpoint();
+    p.union(5, 6);
+    p.union(6, 1);
+    assertEquals(6, p.size(5));
+    p.rollback(inner);
+    assertEquals(4, p.size(1));
+    assertFalse(p.equiv(5, 1));
+    assertFalse(p.equiv(5, 6));
+    p.rollback(outer);
+    assertEquals(10, p.size());
+    assertEquals(9, p.getNumberOfClasses());
+    assertTrue(p.equiv(1, 2));
+    assertFalse(p.equiv(2, 3));
+    HashSet<Integer> set = new HashSet<>();
+    for (int i : p.getMembers(3)) set.add(i);
+    assertEquals(1, set.size());
+    set.clear();
+    for (int i : p.getMembers(1)) set.add(i);
+    assertEquals(2, set.size());
+    p.commit();
+    p.union(3, 4);
+    assertTrue(p.equiv(3, 4));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testRollbackWithoutCheckpoint() {
+    new Partition(3).rollback(0);
+  }
+
 }